@@ -0,0 +1,76 @@
+package com.example.employeeApplication.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH json result file with a baseline result file recorded earlier on the same machine,
+ * and exits with a non-zero status if any benchmark got worse than the baseline by more than the tolerance.
+ * Throughput scores must not drop, time scores must not grow. Benchmarks missing from the baseline are only reported.
+ * <p>
+ * Arguments: result file, baseline file, tolerance as a fraction (e.g. 0.1 for 10%).
+ */
+public final class BenchmarkRegressionGate {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BenchmarkRegressionGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File results = new File(args[0]);
+        File baseline = new File(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        if (!baseline.isFile() || !results.isFile()) {
+            System.out.println("No baseline (" + baseline + ") or results (" + results + "), skipping the regression check");
+            return;
+        }
+
+        Map<String, JsonNode> baselineScores = indexByBenchmark(objectMapper.readTree(baseline));
+        List<String> regressions = new ArrayList<>();
+        for (JsonNode result : objectMapper.readTree(results)) {
+            String key = benchmarkKey(result);
+            JsonNode baselineResult = baselineScores.get(key);
+            if (baselineResult == null) {
+                System.out.println("NEW  " + key);
+                continue;
+            }
+            double score = result.path("primaryMetric").path("score").asDouble();
+            double baselineScore = baselineResult.path("primaryMetric").path("score").asDouble();
+            double change = (score - baselineScore) / baselineScore;
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+            boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+            String line = String.format("%s %s: %.3f -> %.3f %s (%+.1f%%)", regressed ? "FAIL" : "OK  ", key,
+                    baselineScore, score, result.path("primaryMetric").path("scoreUnit").asText(), change * 100);
+            System.out.println(line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        }
+        if (!regressions.isEmpty()) {
+            System.err.println(regressions.size() + " benchmark(s) regressed by more than " + tolerance * 100 + "%");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> indexByBenchmark(JsonNode results) {
+        Map<String, JsonNode> index = new HashMap<>();
+        for (JsonNode result : results) {
+            index.put(benchmarkKey(result), result);
+        }
+        return index;
+    }
+
+    private static String benchmarkKey(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+        result.path("params").fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+        return key.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.employeeApplication.benchmark;
+
+import com.example.employeeApplication.EmployeeApplication;
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmployeeService.search end to end (transaction, query, mapping) against the in-memory H2 database of the test profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class EmployeeSearchBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(0, EmployeeService.DEFAULT_PAGE_SIZE, Sort.by("id"));
+
+    @Param({"200"})
+    private int teamCount;
+
+    @Param({"50"})
+    private int employeesPerTeam;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=warn")
+                .run();
+        employeeService = context.getBean(EmployeeService.class);
+
+        new SyntheticOrg(teamCount, employeesPerTeam).saveTo(context.getBean(TeamRepository.class), context.getBean(EmployeeRepository.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeDto> searchByName() {
+        return employeeService.search(null, null, "employee 12", PAGE).getContent();
+    }
+
+    @Benchmark
+    public List<EmployeeDto> searchInATeamByName() {
+        return employeeService.search(true, null, "employee 12", PAGE).getContent();
+    }
+
+    @Benchmark
+    public List<EmployeeDto> searchTeamLeads() {
+        return employeeService.search(null, true, "", PAGE).getContent();
+    }
+}
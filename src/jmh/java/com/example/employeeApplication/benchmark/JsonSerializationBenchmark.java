@@ -0,0 +1,58 @@
+package com.example.employeeApplication.benchmark;
+
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.utils.ModelMapperUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of team and employee dto lists, including the managed/back references
+ * between TeamDto.employees and EmployeeDto.team. The object mapper is configured like the application's one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int teamCount;
+
+    @Param({"50"})
+    private int employeesPerTeam;
+
+    private ObjectWriter teamsWriter;
+    private ObjectWriter employeesWriter;
+    private List<TeamDto> teams;
+    private List<EmployeeDto> employees;
+
+    @Setup
+    public void setUp() {
+        SyntheticOrg org = new SyntheticOrg(teamCount, employeesPerTeam);
+        teams = ModelMapperUtils.mapTeamEntityList(org.getTeams());
+        employees = ModelMapperUtils.mapEmployeeEntityList(org.getEmployees());
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().failOnEmptyBeans(false).build();
+        teamsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TeamDto.class));
+        employeesWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeDto.class));
+    }
+
+    @Benchmark
+    public byte[] serializeTeams() throws JsonProcessingException {
+        return teamsWriter.writeValueAsBytes(teams);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() throws JsonProcessingException {
+        return employeesWriter.writeValueAsBytes(employees);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.employeeApplication.benchmark;
+
+import com.example.employeeApplication.EmployeeApplication;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test comparing the request execution modes: Tomcat's platform thread pool, and virtual threads
+ * (employee.web.virtual-threads=true, Java 21 or newer). For each mode the application is started on a random port
+ * with the test profile (in-memory H2, unless overridden), filled with a synthetic org and warmed up, then a fixed number
+ * of concurrent clients call the read endpoints in a loop for a fixed time. Throughput and latency percentiles are printed per mode.
+ * Caching is disabled, so every request reaches the database and competes for pooled connections.
+ * <p>
+ * Arguments: modes (comma separated, platform and/or virtual), concurrent clients, measured seconds, then any number of
+ * extra application properties as name=value, e.g. spring.datasource.hikari.maximum-pool-size=5 or a PostgreSQL datasource.
+ */
+public final class LoadTest {
+
+    private static final int TEAMS = 100;
+    private static final int EMPLOYEES_PER_TEAM = 50;
+    private static final int REQUESTED_TEAMS = 20;
+    private static final int WARMUP_SECONDS = 10;
+    private static final byte[] DISCARD = new byte[8192];
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> modes = Arrays.asList(args[0].split(","));
+        int concurrency = Integer.parseInt(args[1]);
+        int seconds = Integer.parseInt(args[2]);
+        List<String> extraProperties = Arrays.asList(args).subList(3, args.length);
+        // keeping one connection per client alive, so the clients don't measure connection setup
+        System.setProperty("http.maxConnections", String.valueOf(concurrency));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-10s %10s %8s %10s %10s %10s %10s %10s", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (String mode : modes) {
+            try {
+                report.add(run(mode, concurrency, seconds, extraProperties));
+            } catch (RuntimeException e) {
+                report.add(String.format("%-10s skipped: %s", mode, rootCause(e).getMessage()));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, int concurrency, int seconds, List<String> extraProperties) throws Exception {
+        List<String> properties = new ArrayList<>(Arrays.asList(
+                "server.port=0",
+                "employee.web.virtual-threads=" + "virtual".equals(mode),
+                "spring.cache.type=none",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                "logging.level.root=warn"));
+        properties.addAll(extraProperties);
+        // passed as command line arguments, which override application.properties
+        List<String> commandLine = new ArrayList<>(properties.size());
+        properties.forEach(x -> commandLine.add("--" + x));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .profiles("test")
+                .run(commandLine.toArray(new String[0]));
+        try {
+            List<Long> teamIds = new SyntheticOrg(TEAMS, EMPLOYEES_PER_TEAM).saveTo(context.getBean(TeamRepository.class), context.getBean(EmployeeRepository.class));
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> urls = new ArrayList<>();
+            for (Long teamId : teamIds.subList(0, REQUESTED_TEAMS)) {
+                urls.add(baseUrl + "/api/teams/" + teamId);
+            }
+            urls.add(baseUrl + "/api/employees/?limit=100");
+            urls.add(baseUrl + "/api/employees/search?name=employee%2012&size=50");
+
+            runClients(urls, concurrency, WARMUP_SECONDS);
+            return runClients(urls, concurrency, seconds).format(mode, seconds);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result runClients(List<String> urls, int concurrency, int seconds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> latencies = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int firstUrl = i;
+            latencies.add(clients.submit(() -> {
+                long[] clientLatencies = new long[1024];
+                int count = 0;
+                for (int request = firstUrl; System.nanoTime() < deadline; request++) {
+                    long start = System.nanoTime();
+                    if (!get(urls.get(request % urls.size()))) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == clientLatencies.length) {
+                        clientLatencies = Arrays.copyOf(clientLatencies, count * 2);
+                    }
+                    clientLatencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(clientLatencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> clientLatencies : latencies) {
+            long[] latenciesOfClient = clientLatencies.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latenciesOfClient.length);
+            System.arraycopy(latenciesOfClient, 0, all, offset, latenciesOfClient.length);
+        }
+        clients.shutdown();
+        Arrays.sort(all);
+        return new Result(all, errors.get());
+    }
+
+    private static boolean get(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            int status = connection.getResponseCode();
+            // reading the whole body, so the connection can be reused
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                while (body != null && body.read(DISCARD) >= 0) {
+                    // discarding the response
+                }
+            }
+            return status == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable.getCause() != null && throwable.getCause() != throwable) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final long errors;
+
+        private Result(long[] sortedLatencies, long errors) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+        }
+
+        private String format(String mode, int seconds) {
+            return String.format("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f", mode, sortedLatencies.length, errors,
+                    sortedLatencies.length / (double) seconds, percentile(0.5), percentile(0.99), percentile(0.999),
+                    percentile(1));
+        }
+
+        private double percentile(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.employeeApplication.benchmark;
+
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.utils.ModelMapperUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to dto mapping of large team and employee lists.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"100", "1000"})
+    private int teamCount;
+
+    @Param({"50"})
+    private int employeesPerTeam;
+
+    private SyntheticOrg org;
+
+    @Setup
+    public void setUp() {
+        org = new SyntheticOrg(teamCount, employeesPerTeam);
+    }
+
+    @Benchmark
+    public List<TeamDto> mapTeamEntityList() {
+        return ModelMapperUtils.mapTeamEntityList(org.getTeams());
+    }
+
+    @Benchmark
+    public List<EmployeeDto> mapEmployeeEntityList() {
+        return ModelMapperUtils.mapEmployeeEntityList(org.getEmployees());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.employeeApplication.benchmark;
+
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds an in-memory graph of teams and employees, linked the same way as entities loaded by the services:
+ * every team has a team lead from its own employees and all associations are initialized.
+ */
+public class SyntheticOrg {
+
+    private final List<TeamEntity> teams;
+    private final List<EmployeeEntity> employees;
+
+    public SyntheticOrg(int teamCount, int employeesPerTeam) {
+        teams = new ArrayList<>(teamCount);
+        employees = new ArrayList<>(teamCount * employeesPerTeam);
+        long employeeId = 1;
+        for (long teamId = 1; teamId <= teamCount; teamId++) {
+            Set<EmployeeEntity> members = new HashSet<>();
+            TeamEntity team = TeamEntity.builder()
+                    .id(teamId)
+                    .name("Team " + teamId)
+                    .employeesInTeam(members)
+                    .build();
+            for (int i = 0; i < employeesPerTeam; i++) {
+                EmployeeEntity employee = new EmployeeEntity();
+                employee.setId(employeeId);
+                employee.setName("Employee " + employeeId);
+                employee.setTeam(team);
+                employee.setTeamsLed(new HashSet<>());
+                members.add(employee);
+                employees.add(employee);
+                employeeId++;
+            }
+            EmployeeEntity teamLead = members.iterator().next();
+            team.setTeamLead(teamLead);
+            teamLead.getTeamsLed().add(team);
+            teams.add(team);
+        }
+    }
+
+    public List<TeamEntity> getTeams() {
+        return teams;
+    }
+
+    public List<EmployeeEntity> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * Inserts a copy of the org into the database of a running application, with generated ids.
+     *
+     * @return ids of the inserted teams
+     */
+    public List<Long> saveTo(TeamRepository teamRepository, EmployeeRepository employeeRepository) {
+        List<Long> teamIds = new ArrayList<>(teams.size());
+        for (TeamEntity syntheticTeam : teams) {
+            TeamEntity team = teamRepository.save(TeamEntity.builder().name(syntheticTeam.getName()).build());
+            List<EmployeeEntity> members = new ArrayList<>();
+            for (EmployeeEntity syntheticEmployee : syntheticTeam.getEmployeesInTeam()) {
+                EmployeeEntity employee = new EmployeeEntity();
+                employee.setName(syntheticEmployee.getName());
+                employee.setTeam(team);
+                members.add(employee);
+            }
+            members = employeeRepository.saveAll(members);
+            team.setTeamLead(members.get(0));
+            teamRepository.save(team);
+            teamIds.add(team.getId());
+        }
+        return teamIds;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.employeeApplication.admission;
+
+import com.example.employeeApplication.configuration.AdmissionProperties;
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.exception.ErrorCode;
+import com.example.employeeApplication.exception.dto.ErrorMessageDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the employee and team endpoints, registered by AdmissionConfig. Every request first
+ * takes a token from the bucket of its client and endpoint, and is rejected with 429 if there is none. It then takes
+ * one of the concurrent slots shared by all endpoints, waiting in a bounded queue if none is free, and is rejected
+ * with 503 if the queue is full or the wait times out. Both carry Retry-After.
+ * <p>
+ * The concurrency limit is kept below the connection pool size, so an expensive burst is shed here instead of
+ * holding every request thread while waiting for a connection, which would stall all other endpoints too.
+ * Rejections are written directly, without an exception, so shedding load stays cheap.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String SLOT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".slot";
+    private static final String RATE_LIMIT = "rate-limit";
+    private static final String CONCURRENCY_LIMIT = "concurrency-limit";
+
+    private final AdmissionProperties admissionProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Cache<String, TokenBucket> buckets;
+
+    public AdmissionInterceptor(AdmissionProperties admissionProperties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.admissionProperties = admissionProperties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        concurrencyLimiter = new ConcurrencyLimiter(admissionProperties.getMaxConcurrent(), admissionProperties.getMaxQueued());
+        // a bucket unused for longer than its refill time is full, dropping it doesn't change any decision
+        buckets = Caffeine.newBuilder()
+                .maximumSize(admissionProperties.getMaxClients())
+                .expireAfterAccess(longestRefillTime(admissionProperties))
+                .build();
+        Gauge.builder(MetricsConfig.ADMISSION_IN_FLIGHT, concurrencyLimiter, ConcurrencyLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder(MetricsConfig.ADMISSION_QUEUE_SIZE, concurrencyLimiter, ConcurrencyLimiter::getQueued).register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        long waitNanos = takeToken(endpoint, request);
+        if (waitNanos > 0) {
+            return reject(response, endpoint, RATE_LIMIT, HttpStatus.TOO_MANY_REQUESTS, ErrorCode.TOO_MANY_REQUESTS,
+                    "Too many requests, retry later!", TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+        if (!takeSlot(endpoint)) {
+            return reject(response, endpoint, CONCURRENCY_LIMIT, HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.SERVICE_UNAVAILABLE,
+                    "Server is busy, retry later!", 1);
+        }
+        request.setAttribute(SLOT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(SLOT_ATTRIBUTE) != null) {
+            request.removeAttribute(SLOT_ATTRIBUTE);
+            concurrencyLimiter.release();
+        }
+    }
+
+    private long takeToken(String endpoint, HttpServletRequest request) {
+        AdmissionProperties.RateLimit limit = admissionProperties.getEndpoints().getOrDefault(endpoint, admissionProperties.getRateLimit());
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(endpoint + " " + clientId(request),
+                key -> new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst(), now));
+        return bucket.tryAcquire(now);
+    }
+
+    private boolean takeSlot(String endpoint) {
+        if (concurrencyLimiter.tryAcquire()) {
+            return true;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean admitted = concurrencyLimiter.acquireQueued(admissionProperties.getQueueTimeout());
+        sample.stop(meterRegistry.timer(MetricsConfig.ADMISSION_QUEUED, "endpoint", endpoint, "outcome", admitted ? "admitted" : "rejected"));
+        return admitted;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String header = admissionProperties.getClientHeader();
+        String client = header != null ? request.getHeader(header) : null;
+        return client != null && !client.isEmpty() ? client : request.getRemoteAddr();
+    }
+
+    private boolean reject(HttpServletResponse response, String endpoint, String reason, HttpStatus status, ErrorCode code,
+                           String message, long retryAfterSeconds) throws IOException {
+        meterRegistry.counter(MetricsConfig.ADMISSION_REJECTED, "endpoint", endpoint, "reason", reason).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorMessageDto(message, code));
+        return false;
+    }
+
+    private static Duration longestRefillTime(AdmissionProperties admissionProperties) {
+        double seconds = refillSeconds(admissionProperties.getRateLimit());
+        for (AdmissionProperties.RateLimit limit : admissionProperties.getEndpoints().values()) {
+            seconds = Math.max(seconds, refillSeconds(limit));
+        }
+        return Duration.ofMillis((long) Math.ceil(seconds * 1000));
+    }
+
+    private static double refillSeconds(AdmissionProperties.RateLimit limit) {
+        return limit.getBurst() / limit.getPermitsPerSecond();
+    }
+}
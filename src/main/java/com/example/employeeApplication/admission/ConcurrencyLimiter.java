@@ -0,0 +1,71 @@
+package com.example.employeeApplication.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit on the number of requests handled at the same time, with a bounded queue. A free slot is taken without waiting;
+ * otherwise up to maxQueued requests wait for one, for at most the timeout, and any further request is rejected
+ * immediately. So under overload requests are shed right away, instead of piling up on the request threads and the
+ * connection pool.
+ */
+public final class ConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public ConcurrencyLimiter(int maxConcurrent, int maxQueued) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Takes a slot if one is free, without waiting.
+     *
+     * @return whether a slot was taken
+     */
+    public boolean tryAcquire() {
+        return slots.tryAcquire();
+    }
+
+    /**
+     * Waits for a slot, if the queue isn't full.
+     *
+     * @param timeout longest time to wait
+     * @return whether a slot was taken, false if the queue is full, the timeout passed or the thread was interrupted
+     */
+    public boolean acquireQueued(Duration timeout) {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Frees a slot taken by tryAcquire or acquireQueued.
+     */
+    public void release() {
+        slots.release();
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.employeeApplication.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm: the whole state is one timestamp, the time
+ * at which the bucket will be full again. Taking a token moves it forward by the interval between tokens; a token is
+ * available as long as the timestamp stays within burst intervals from now. Updated with compare-and-set, so
+ * concurrent requests of the same client never block each other.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param tokensPerSecond sustained rate
+     * @param burst           capacity of the bucket, it starts full
+     * @param now             current time in nanoseconds, as from System.nanoTime
+     */
+    public TokenBucket(double tokensPerSecond, int burst, long now) {
+        if (tokensPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and burst");
+        }
+        nanosPerToken = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        burstNanos = nanosPerToken * burst;
+        fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token, if available.
+     *
+     * @param now current time in nanoseconds, as from System.nanoTime
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            // a bucket full before now stays full, time it was idle doesn't add tokens beyond the burst
+            long next = (current - now > 0 ? current : now) + nanosPerToken;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
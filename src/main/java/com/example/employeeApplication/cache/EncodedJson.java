@@ -0,0 +1,81 @@
+package com.example.employeeApplication.cache;
+
+import com.example.employeeApplication.versioning.ChangeToken;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * UTF-8 JSON of a response body at one version, with its gzip encoding computed once when the entry is created.
+ */
+@Getter
+public class EncodedJson {
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * Validators of the state the json was built from
+     */
+    private final ChangeToken changeToken;
+    private final byte[] json;
+    /**
+     * Gzip encoded json, null if compressing doesn't make it smaller
+     */
+    private final byte[] gzip;
+
+    private EncodedJson(ChangeToken changeToken, byte[] json, byte[] gzip) {
+        this.changeToken = changeToken;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public static EncodedJson of(ChangeToken changeToken, byte[] json) {
+        byte[] gzip = compress(json);
+        return new EncodedJson(changeToken, json, gzip.length < json.length ? gzip : null);
+    }
+
+    /**
+     * Returns a 200 response with the headers of the change token and the stored bytes, gzip encoded if the client accepts it.
+     * The bytes are written to the response as they are, without going through Jackson.
+     */
+    public ResponseEntity<byte[]> ok(WebRequest webRequest) {
+        ResponseEntity.BodyBuilder response = changeToken.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip != null && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(gzip);
+        }
+        return response.body(json);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                // gzip;q=0 means the client refuses it
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
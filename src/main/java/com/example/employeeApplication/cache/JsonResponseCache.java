@@ -0,0 +1,82 @@
+package com.example.employeeApplication.cache;
+
+import com.example.employeeApplication.configuration.CacheConfig;
+import com.example.employeeApplication.versioning.ChangeToken;
+import com.example.employeeApplication.versioning.Versioned;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * Cache of encoded response bodies of the read endpoints. An entry is only used while its ETag is the current one,
+ * and is served with the validators it was stored with, so a body is never served with the validators of another
+ * version. Entries are also evicted by OrgCacheEvictionListener when the resource changes.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonResponseCache {
+
+    private static final String EMPLOYEE_KEY = "employee:";
+    private static final String TEAM_KEY = "team:";
+    static final String ALL_TEAMS_KEY = "teams";
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Returns the employee body cached under the current change token, or reads and caches it. The read employee
+     * brings its own change token, read from the same row, and the entry is stored and served with that one: the
+     * employee may have changed after the current token was read, and a stored body must never be labeled with the
+     * version of another state.
+     */
+    public EncodedJson getEmployee(Long id, ChangeToken current, Supplier<? extends Versioned<?>> employee) {
+        return get(employeeKey(id), current, () -> {
+            Versioned<?> read = employee.get();
+            return EncodedJson.of(read.getChangeToken(), serialize(read.getValue()));
+        });
+    }
+
+    public EncodedJson getTeam(Long id, ChangeToken current, Supplier<byte[]> teamJson) {
+        return get(teamKey(id), current, () -> EncodedJson.of(current, teamJson.get()));
+    }
+
+    public EncodedJson getAllTeams(ChangeToken current, Supplier<byte[]> teamsJson) {
+        return get(ALL_TEAMS_KEY, current, () -> EncodedJson.of(current, teamsJson.get()));
+    }
+
+    static String employeeKey(Long id) {
+        return EMPLOYEE_KEY + id;
+    }
+
+    static String teamKey(Long id) {
+        return TEAM_KEY + id;
+    }
+
+    private EncodedJson get(String key, ChangeToken current, Supplier<EncodedJson> encode) {
+        Cache cache = cacheManager.getCache(CacheConfig.RESPONSES);
+        if (cache == null) {
+            return encode.get();
+        }
+        EncodedJson cached = cache.get(key, EncodedJson.class);
+        if (cached != null && cached.getChangeToken().getEtag().equals(current.getEtag())) {
+            return cached;
+        }
+        EncodedJson encoded = encode.get();
+        cache.put(key, encoded);
+        return encoded;
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Response body can't be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.employeeApplication.cache;
+
+import com.example.employeeApplication.configuration.CacheConfig;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Evicts the cached dtos and response bodies of changed employees and teams once the change is committed.
+ * Evicting after the commit only keeps a read that starts later from seeing the old entry: a read that loaded the old
+ * state before the commit can still put it back after the eviction. Entries of both caches therefore keep the version
+ * of the state they were read from, and are only served while it is the current one.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrgChanged(OrgChangedEvent event) {
+        evict(CacheConfig.EMPLOYEES, event.getEmployeeIds());
+        evictResponses(event);
+    }
+
+    private void evictResponses(OrgChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.RESPONSES);
+        if (cache == null) {
+            return;
+        }
+        event.getEmployeeIds().stream().filter(Objects::nonNull).forEach(id -> cache.evict(JsonResponseCache.employeeKey(id)));
+        event.getTeamIds().stream().filter(Objects::nonNull).forEach(id -> cache.evict(JsonResponseCache.teamKey(id)));
+        if (!event.getTeamIds().isEmpty()) {
+            cache.evict(JsonResponseCache.ALL_TEAMS_KEY);
+        }
+    }
+
+    private void evict(String cacheName, Set<Long> ids) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        for (Long id : ids) {
+            if (id != null) {
+                cache.evict(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.employeeApplication.changes;
+
+import com.example.employeeApplication.dto.OrgChangeBatchDto;
+import com.example.employeeApplication.dto.OrgChangeDto;
+import com.example.employeeApplication.entity.OrgChangeEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import com.example.employeeApplication.repository.OrgChangeHeadRepository;
+import com.example.employeeApplication.repository.OrgChangeRepository;
+import com.example.employeeApplication.utils.ModelMapperUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the change feed from the org_change outbox. Besides plain reads, consumers can long-poll (wait for the next
+ * change) or subscribe to server-sent events. Waiting consumers are served after each commit by a single notifier thread,
+ * so writers don't wait for them, and commits made while the notifier is busy are served by one pass.
+ * Only commits of this instance wake consumers up, on other instances they get the changes with their next request.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgChangeFeed {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_WAIT_SECONDS = 60;
+    public static final String SSE_EVENT_NAME = "changes";
+    private static final long SSE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final OrgChangeRepository changeRepository;
+    private final OrgChangeHeadRepository headRepository;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final Queue<Subscriber> subscribers = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notificationPending = new AtomicBoolean();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "org-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Returns the offset of the last committed change. A consumer taking a snapshot reads the head first and then
+     * follows the feed from it, so no change made during the snapshot is missed.
+     *
+     * @return offset of the last change, 0 if there are none
+     */
+    public long getHead() {
+        Long head = headRepository.findLastChangeId();
+        return head != null ? head : 0;
+    }
+
+    /**
+     * Returns the changes after the given offset, oldest first. If the offset is negative or the limit is not between 1 and
+     * MAX_BATCH_SIZE, bad request API exception will be thrown.
+     *
+     * @param after offset of the last change the consumer has seen, 0 to read from the start
+     * @param limit maximum number of changes, null for DEFAULT_BATCH_SIZE
+     * @return the changes, and the offset to read the next batch from
+     */
+    public OrgChangeBatchDto read(long after, Integer limit) {
+        return readBatch(after, checkLimit(limit));
+    }
+
+    /**
+     * Same as read, but if there are no changes after the offset, waits until there are or the wait time passes.
+     * If the wait is not between 0 and MAX_WAIT_SECONDS, bad request API exception will be thrown.
+     *
+     * @param waitSeconds maximum time to wait for changes, null or 0 to return immediately
+     * @return result completed with the changes, or with an empty batch when the wait time passes
+     */
+    public DeferredResult<OrgChangeBatchDto> poll(long after, Integer limit, Integer waitSeconds) {
+        int batchSize = checkLimit(limit);
+        int wait = waitSeconds != null ? waitSeconds : 0;
+        if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+            throw ApiExceptionFactory.badRequest("Wait must be between 0 and " + MAX_WAIT_SECONDS + " seconds!");
+        }
+        DeferredResult<OrgChangeBatchDto> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait), emptyBatch(after));
+        Waiter waiter = new Waiter(after, batchSize, result);
+        if (wait > 0) {
+            // registering before reading, so a commit between the read and the registration isn't missed
+            waiters.add(waiter);
+            result.onCompletion(() -> waiters.remove(waiter));
+        }
+        OrgChangeBatchDto batch = readBatch(after, batchSize);
+        if (!batch.getChanges().isEmpty() || wait == 0) {
+            result.setResult(batch);
+        }
+        return result;
+    }
+
+    /**
+     * Streams the changes after the given offset as server-sent events, each event a batch of changes with the
+     * offset of its last change as the event id. A consumer resumes by reconnecting with that id as the offset.
+     * If the offset is negative, bad request API exception will be thrown.
+     */
+    public SseEmitter subscribe(long after) {
+        checkOffset(after);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(emitter, after);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // sending the backlog from the notifier thread, which is the only thread sending events
+        notifier.execute(() -> deliver(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrgChanged(OrgChangedEvent event) {
+        if (waiters.isEmpty() && subscribers.isEmpty()) {
+            return;
+        }
+        if (notificationPending.compareAndSet(false, true)) {
+            notifier.execute(this::notifyConsumers);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+        subscribers.forEach(x -> x.emitter.complete());
+    }
+
+    private void notifyConsumers() {
+        notificationPending.set(false);
+        for (Waiter waiter : waiters) {
+            try {
+                OrgChangeBatchDto batch = readBatch(waiter.after, waiter.limit);
+                if (!batch.getChanges().isEmpty()) {
+                    waiter.result.setResult(batch);
+                }
+            } catch (RuntimeException e) {
+                waiter.result.setErrorResult(e);
+            }
+        }
+        subscribers.forEach(this::deliver);
+    }
+
+    private void deliver(Subscriber subscriber) {
+        try {
+            OrgChangeBatchDto batch;
+            while (!(batch = readBatch(subscriber.offset, MAX_BATCH_SIZE)).getChanges().isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(batch.getNextOffset()))
+                        .name(SSE_EVENT_NAME)
+                        .data(batch.getChanges()));
+                subscriber.offset = batch.getNextOffset();
+            }
+        } catch (IOException | RuntimeException e) {
+            // the consumer disconnected, it resumes from its last event id
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private OrgChangeBatchDto readBatch(long after, int limit) {
+        checkOffset(after);
+        List<OrgChangeEntity> changes = changeRepository.findAllByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+        if (changes.isEmpty()) {
+            return emptyBatch(after);
+        }
+        List<OrgChangeDto> changeDtos = new ArrayList<>(changes.size());
+        changes.forEach(x -> changeDtos.add(ModelMapperUtils.mapOrgChangeEntity(x)));
+        return OrgChangeBatchDto.builder()
+                .changes(changeDtos)
+                .nextOffset(changes.get(changes.size() - 1).getId())
+                .build();
+    }
+
+    private OrgChangeBatchDto emptyBatch(long after) {
+        return OrgChangeBatchDto.builder().changes(new ArrayList<>()).nextOffset(after).build();
+    }
+
+    private int checkLimit(Integer limit) {
+        int batchSize = limit != null ? limit : DEFAULT_BATCH_SIZE;
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw ApiExceptionFactory.badRequest("Limit must be between 1 and " + MAX_BATCH_SIZE + "!");
+        }
+        return batchSize;
+    }
+
+    private void checkOffset(long after) {
+        if (after < 0) {
+            throw ApiExceptionFactory.badRequest("Offset must not be negative!");
+        }
+    }
+
+    private static class Waiter {
+        private final long after;
+        private final int limit;
+        private final DeferredResult<OrgChangeBatchDto> result;
+
+        Waiter(long after, int limit, DeferredResult<OrgChangeBatchDto> result) {
+            this.after = after;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        // only read and written by the notifier thread
+        private long offset;
+
+        Subscriber(SseEmitter emitter, long offset) {
+            this.emitter = emitter;
+            this.offset = offset;
+        }
+    }
+}
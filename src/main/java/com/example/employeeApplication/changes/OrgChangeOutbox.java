@@ -0,0 +1,74 @@
+package com.example.employeeApplication.changes;
+
+import com.example.employeeApplication.entity.ChangedEntityType;
+import com.example.employeeApplication.entity.OrgChangeEntity;
+import com.example.employeeApplication.entity.OrgChangeHeadEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.repository.OrgChangeHeadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Appends every employee and team named in an OrgChangedEvent to the org_change outbox, in the same transaction as the change.
+ * Offsets are reserved on the head row just before commit, which keeps the row locked only for the end of the transaction:
+ * the listener runs after every other BEFORE_COMMIT listener (they have higher precedence orders), and only the flush of
+ * the appended rows and the commit itself follow the update of the head row.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgChangeOutbox {
+
+    private final OrgChangeHeadRepository headRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Creates the head row if the schema wasn't created by the migrations (e.g. tests on H2).
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void createHead() {
+        if (!headRepository.existsById(OrgChangeHeadEntity.ID)) {
+            headRepository.save(new OrgChangeHeadEntity(OrgChangeHeadEntity.ID, 0L));
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrgChanged(OrgChangedEvent event) {
+        Set<Long> employeeIds = sorted(event.getEmployeeIds());
+        Set<Long> teamIds = sorted(event.getTeamIds());
+        int count = employeeIds.size() + teamIds.size();
+        if (count == 0) {
+            return;
+        }
+        headRepository.advance(count);
+        long offset = headRepository.findLastChangeId() - count;
+
+        Instant now = Instant.now();
+        for (Long id : employeeIds) {
+            entityManager.persist(new OrgChangeEntity(++offset, ChangedEntityType.EMPLOYEE, id, now));
+        }
+        for (Long id : teamIds) {
+            entityManager.persist(new OrgChangeEntity(++offset, ChangedEntityType.TEAM, id, now));
+        }
+    }
+
+    private Set<Long> sorted(Set<Long> ids) {
+        Set<Long> result = new TreeSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.employeeApplication.coalescing;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a read method whose concurrent calls with equal arguments share one execution, see CoalescingAspect.
+ * Only for methods without side effects, whose result is not modified by the callers.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+}
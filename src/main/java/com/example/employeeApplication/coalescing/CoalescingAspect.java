@@ -0,0 +1,96 @@
+package com.example.employeeApplication.coalescing;
+
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Single-flight execution of the methods annotated with @Coalesced. The first call of a method with given arguments
+ * runs it, calls with equal arguments arriving while it runs wait for it and get the same result (or exception),
+ * instead of each running its own transaction and queries. So a burst of identical requests costs one load.
+ * <p>
+ * Runs before the cache and transaction interceptors, so waiting calls hold no database connection. Calls in flight
+ * are kept in a ConcurrentHashMap, which locks only the bin of the key being added or removed, so calls with different
+ * arguments never wait for each other. Once an org change is committed, new calls stop joining the loads started
+ * before it, so a client never gets a state older than its own committed write. Calls made inside a transaction are
+ * never coalesced.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CoalescingAspect {
+
+    private final ConcurrentMap<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(com.example.employeeApplication.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // the caller's transaction may see its own uncommitted changes, that result can't be shared
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CallKey key = new CallKey(method, Arrays.asList(joinPoint.getArgs()));
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            meterRegistry.counter(MetricsConfig.COALESCED_CALLS,
+                    "class", method.getDeclaringClass().getSimpleName(), "method", method.getName()).increment();
+            return await(running);
+        }
+        try {
+            Object result = joinPoint.proceed();
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrgChanged(OrgChangedEvent event) {
+        // calls already waiting still get the running load's result, they arrived before the commit
+        inFlight.clear();
+    }
+
+    private static Object await(CompletableFuture<Object> running) throws Throwable {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call", e);
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class CallKey {
+        private final Method method;
+        private final List<Object> args;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.employeeApplication.configuration;
+
+import com.example.employeeApplication.admission.AdmissionInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Rate limiting and concurrency limiting of the employee and team endpoints, when employee.admission.enabled=true.
+ * Limits are set with the employee.admission properties.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.admission.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionProperties admissionProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    public AdmissionInterceptor admissionInterceptor() {
+        return new AdmissionInterceptor(admissionProperties, meterRegistry, objectMapper);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor()).addPathPatterns("/api/employees/**", "/api/teams/**");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.employeeApplication.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "employee.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether requests to the employee and team endpoints are rate and concurrency limited, see AdmissionInterceptor
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header identifying the client, e.g. an API key header. When not set, or missing from a request,
+     * the client is identified by its address.
+     */
+    private String clientHeader;
+
+    /**
+     * Rate limit of every client on every endpoint without its own limit
+     */
+    private RateLimit rateLimit = new RateLimit();
+
+    /**
+     * Rate limits of single endpoints, by controller and method name, e.g. EmployeeController.searchEmployees
+     */
+    private Map<String, RateLimit> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Number of clients whose rate limit state is kept, the least recently seen ones are dropped
+     */
+    private long maxClients = 100000;
+
+    /**
+     * Number of requests handled at the same time. Should be below the connection pool size,
+     * so requests wait here instead of holding a thread while waiting for a connection.
+     */
+    private int maxConcurrent = 8;
+
+    /**
+     * Number of requests waiting for one of the concurrent slots, further requests are rejected right away
+     */
+    private int maxQueued = 32;
+
+    /**
+     * How long a request waits for a concurrent slot before it is rejected
+     */
+    private Duration queueTimeout = Duration.ofMillis(500);
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        /**
+         * Sustained number of requests per second
+         */
+        private double permitsPerSecond = 20;
+
+        /**
+         * Number of requests allowed at once after a quiet period
+         */
+        private int burst = 40;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.employeeApplication.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables caching of service lookups. The caches themselves (Caffeine, size and TTL bounded) are configured with the
+ * spring.cache properties, and their hit/miss/eviction counters are exported as cache.* metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Employee dtos by employee id, each with the change token of the row it was read from
+     */
+    public static final String EMPLOYEES = "employees";
+
+    /**
+     * Encoded JSON response bodies by resource, see JsonResponseCache
+     */
+    public static final String RESPONSES = "responses";
+}
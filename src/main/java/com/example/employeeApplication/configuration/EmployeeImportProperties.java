@@ -0,0 +1,19 @@
+package com.example.employeeApplication.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "employee.import")
+public class EmployeeImportProperties {
+
+    /**
+     * Number of imported employees inserted (and flushed from the persistence context) together.
+     * Should match hibernate.jdbc.batch_size so each chunk is sent as one JDBC batch.
+     */
+    private int batchSize = 500;
+}
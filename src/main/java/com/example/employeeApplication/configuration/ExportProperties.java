@@ -0,0 +1,19 @@
+package com.example.employeeApplication.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "employee.export")
+public class ExportProperties {
+
+    /**
+     * Number of rows the JDBC driver fetches from the database cursor at a time. Bounds the memory used by an export,
+     * the driver holds at most this many rows, however many are exported.
+     */
+    private int fetchSize = 1000;
+}
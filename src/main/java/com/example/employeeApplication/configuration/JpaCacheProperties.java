@@ -0,0 +1,43 @@
+package com.example.employeeApplication.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "employee.jpa")
+public class JpaCacheProperties {
+
+    /**
+     * Whether Hibernate caches entities, collections and query results between transactions, see SecondLevelCacheConfig
+     */
+    private boolean secondLevelCache = false;
+
+    /**
+     * Size and TTL of each second-level cache region, by region name. Every region used by the entities and queries
+     * must be listed, the application fails to start otherwise.
+     */
+    private Map<String, CacheRegion> cacheRegions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class CacheRegion {
+
+        /**
+         * Number of entries after which the least recently used ones are evicted
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * How long an entry is kept after it was put in the region
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.employeeApplication.configuration;
+
+import com.example.employeeApplication.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics, scraped from /actuator/prometheus. Besides the ones Spring Boot records on its own
+ * (http.server.requests per endpoint, spring.data.repository.invocations per repository method, hikaricp.* pool gauges,
+ * cache.*), this adds timers on service methods and mappings, the number of SQL statements per request, and admission control.
+ * Histograms and percentiles are configured with the management.metrics.distribution properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Timer on every public method of the classes annotated with @Timed(SERVICE_TIMER), tagged by class and method
+     */
+    public static final String SERVICE_TIMER = "app.service";
+
+    /**
+     * Timer on the list and roster mappings in ModelMapperUtils, tagged by method
+     */
+    public static final String MAPPER_TIMER = "app.mapper";
+
+    /**
+     * Counter of calls of @Coalesced methods that got the result of an identical call already running, tagged by class and method
+     */
+    public static final String COALESCED_CALLS = "app.service.coalesced";
+
+    /**
+     * Counter of requests rejected by admission control, tagged by endpoint and reason (rate-limit or concurrency-limit)
+     */
+    public static final String ADMISSION_REJECTED = "app.admission.rejected";
+
+    /**
+     * Timer of the waits of requests queued for a concurrent slot, tagged by endpoint and outcome (admitted or rejected)
+     */
+    public static final String ADMISSION_QUEUED = "app.admission.queued";
+
+    /**
+     * Gauge of the requests being handled under the concurrency limit
+     */
+    public static final String ADMISSION_IN_FLIGHT = "app.admission.in.flight";
+
+    /**
+     * Gauge of the requests waiting for a concurrent slot
+     */
+    public static final String ADMISSION_QUEUE_SIZE = "app.admission.queue.size";
+
+    /**
+     * Distribution of the number of SQL statements prepared while handling one request, tagged by method and uri
+     */
+    public static final String REQUEST_SQL_STATEMENTS = "http.server.requests.sql.statements";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+}
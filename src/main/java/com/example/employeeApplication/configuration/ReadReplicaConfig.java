@@ -0,0 +1,79 @@
+package com.example.employeeApplication.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routing of read-only transactions to a replica, when employee.datasource.replica.jdbc-url is set. Two pools are
+ * created: the primary one from the spring.datasource properties, and the replica one from the
+ * employee.datasource.replica properties (any Hikari setting, e.g. maximum-pool-size). Transactions marked
+ * read-only - the read methods of the services - take their connection from the replica, everything else from the primary.
+ * <p>
+ * The routing data source is wrapped in a LazyConnectionDataSourceProxy, because the transaction manager asks for a
+ * connection before it marks the transaction read-only; the proxy fetches the real connection at the first statement.
+ * <p>
+ * Reads don't see the client's own writes: the replica can lag behind the primary, so a read right after a write may
+ * still return the previous state. A client that needs the written state should use the body of the write response.
+ * The caches don't make the lag longer. Cached employee dtos and response bodies are only served while their version
+ * is the one read in the same read-only transaction, so once the replica has applied a write, no read returns an
+ * older state. If-Match is checked by the update itself, on the primary, so conditional updates never act on a lagging read.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("employee.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primaryDataSource);
+        targets.put(REPLICA, replicaDataSource);
+        ReadOnlyRoutingDataSource routingDataSource = new ReadOnlyRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Chooses the replica for read-only transactions, and the primary for read-write transactions and work outside of one.
+     */
+    private static class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.employeeApplication.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache, when employee.jpa.second-level-cache=true. Teams, employees, their collections and
+ * the team name lookup are cached in local Caffeine caches (through JCache), one per region, sized and expired with
+ * the employee.jpa.cache-regions properties. A region missing from the properties fails the startup, so no region is
+ * ever created unbounded by accident.
+ * <p>
+ * Hibernate keeps the regions consistent with its own writes: updated entities are replaced on commit, and a bulk
+ * HQL update or delete evicts every region of the tables it writes to. Writes made outside of Hibernate (plain JDBC,
+ * other applications) are not seen until the entries expire. Hit and miss counts of every region are exported as
+ * hibernate.second.level.cache.* metrics.
+ * <p>
+ * Hibernate turns the cache on by itself when it finds a JCache provider, so application.properties switches it off
+ * (hibernate.cache.use_second_level_cache=false) and this configuration switches it back on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.jpa.second-level-cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    /**
+     * Team entities by id
+     */
+    public static final String TEAM = "team";
+
+    /**
+     * Employee ids of every team
+     */
+    public static final String TEAM_EMPLOYEES = "team-employees";
+
+    /**
+     * Employee entities by id
+     */
+    public static final String EMPLOYEE = "employee";
+
+    /**
+     * Ids of the teams led by every employee
+     */
+    public static final String EMPLOYEE_TEAMS_LED = "employee-teams-led";
+
+    /**
+     * Team ids by team name, see TeamRepository.findAllByNameEqualsIgnoreCase
+     */
+    public static final String TEAM_BY_NAME = "team-by-name";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(JpaCacheProperties properties) {
+        // a cache manager of its own, not the provider's default one shared by everything in the JVM
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        properties.getCacheRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+            cacheManager.createCache(name, configuration);
+        });
+        // last update time of every table, checked before using a cached query result; an evicted entry would let
+        // a stale result be used, so this region is never bounded
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // the region hit and miss counts are only recorded with statistics on
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.employeeApplication.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "employee.statistics")
+public class StatisticsProperties {
+
+    /**
+     * How old returned statistics can be. Statistics are recomputed by the first request after they get older,
+     * so the aggregate queries run at most once per this period, no matter how many requests there are.
+     */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /**
+     * How old statistics can always be, whatever staleness a request asks for. Keeps clients from recomputing
+     * the statistics on every request.
+     */
+    private Duration minStaleness = Duration.ofSeconds(1);
+
+    /**
+     * Number of teams in the list of the largest teams
+     */
+    private int largestTeams = 10;
+}
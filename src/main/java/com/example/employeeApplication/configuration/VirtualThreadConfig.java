@@ -0,0 +1,43 @@
+package com.example.employeeApplication.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling (controllers, services and their blocking JDBC calls) on virtual threads instead of Tomcat's
+ * fixed pool of platform threads, when employee.web.virtual-threads=true. A request waiting for a pooled connection
+ * then parks its virtual thread instead of holding one of the platform threads, so bursts queue on the connection pool
+ * instead of exhausting the request threads. The connection pool size is still the limit on concurrent queries.
+ * <p>
+ * Needs Java 21 or newer at runtime, the application fails to start otherwise. The code is compiled for the project's
+ * Java version, so the virtual thread executor is created reflectively.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.web.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadRequestExecutor() {
+        return newVirtualThreadExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadRequestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadRequestExecutor);
+    }
+
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("employee.web.virtual-threads needs Java 21 or newer, running on Java " + System.getProperty("java.version"));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual thread executor could not be created", e);
+        }
+    }
+}
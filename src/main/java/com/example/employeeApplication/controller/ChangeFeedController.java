@@ -0,0 +1,64 @@
+package com.example.employeeApplication.controller;
+
+import com.example.employeeApplication.changes.OrgChangeFeed;
+import com.example.employeeApplication.dto.OrgChangeBatchDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController("Change feed controller")
+@RequestMapping("/api/changes")
+@Tag(name = "Change feed controller", description = "Feed of employee and team changes, for keeping a copy of the org in sync")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final OrgChangeFeed orgChangeFeed;
+
+    @Operation(description = "Returns the offset of the last change. Read it before taking a snapshot (e.g. all teams), then follow the feed from it.")
+    @GetMapping("/head")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public ResponseEntity<Long> getHead() {
+        return ResponseEntity.ok(orgChangeFeed.getHead());
+    }
+
+    @Operation(description = "Returns the changed employees and teams after an offset, oldest first. after- offset of the last seen change, 0 for all, "
+            + "limit- maximum number of changes, wait- seconds to wait for a change if there is none yet (long polling), up to 60. "
+            + "Pass the returned nextOffset as after of the next request. The current state of changed employees and teams is read from the batch endpoints.")
+    @GetMapping("/")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Invalid offset, limit or wait"),
+            @ApiResponse(responseCode = "200", description = "ok, result, empty if no change was made during the wait")
+    })
+    public DeferredResult<OrgChangeBatchDto> getChanges(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                        @RequestParam(name = "limit", required = false) Integer limit,
+                                                        @RequestParam(name = "wait", required = false) Integer wait) {
+        return orgChangeFeed.poll(after, limit, wait);
+    }
+
+    @Operation(description = "Streams the changed employees and teams after an offset as server-sent events. Each event is a batch of changes, "
+            + "its id is the offset of the last change in it. after- offset of the last seen change, 0 for all; on reconnect the Last-Event-ID header is used instead.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Invalid offset"),
+            @ApiResponse(responseCode = "200", description = "ok, stream of changes")
+    })
+    public SseEmitter streamChanges(@RequestParam(name = "after", defaultValue = "0") long after,
+                                    @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) Long lastEventId) {
+        return orgChangeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -1,17 +1,37 @@
 package com.example.employeeApplication.controller;
 
+import com.example.employeeApplication.cache.JsonResponseCache;
+import com.example.employeeApplication.dto.BatchItemDto;
 import com.example.employeeApplication.dto.EmployeeCreateDto;
 import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.EmployeeImportResultDto;
+import com.example.employeeApplication.dto.EmployeePageDto;
+import com.example.employeeApplication.service.EmployeeImportService;
 import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.versioning.ChangeToken;
+import com.example.employeeApplication.versioning.Versioned;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.api.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController("Employee controller")
@@ -20,25 +40,59 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EmployeeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final EmployeeService employeeService;
+    private final EmployeeImportService employeeImportService;
+    private final JsonResponseCache jsonResponseCache;
 
-    @Operation(description = "Returns all employees")
+    @Operation(description = "Returns a page of employees ordered by id. cursor- nextCursor of the previous page, omitted for the first page, limit- page size.")
     @GetMapping("/")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public ResponseEntity<EmployeePageDto> getAllEmployees(@RequestParam(name = "cursor", required = false) Long cursor,
+                                                           @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(employeeService.getEmployeesPage(cursor, limit));
+    }
+
+    @Operation(description = "Streams all employees ordered by id as newline-delimited JSON")
+    @GetMapping(value = "/stream", produces = NDJSON)
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "ok, result")
     })
-    public ResponseEntity<List<EmployeeDto>> getAllEmployees() {
-        return ResponseEntity.ok(employeeService.getAllEmployees());
+    public void streamAllEmployees(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        employeeService.streamAllEmployees(response.getOutputStream());
     }
 
-    @Operation(description = "Returns employee based on id")
-    @GetMapping("/{id}")
+    @Operation(description = "Returns employee based on id. Supports If-None-Match and If-Modified-Since with the returned ETag and Last-Modified, and gzip with Accept-Encoding.")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses({
             @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag/ date"),
+            @ApiResponse(responseCode = "200", description = "ok, result",
+                    content = @Content(schema = @Schema(implementation = EmployeeDto.class)))
+    })
+    public ResponseEntity<byte[]> getEmployeeById(@PathVariable Long id, WebRequest webRequest) {
+        ChangeToken changeToken = employeeService.getEmployeeChangeToken(id);
+        if (webRequest.checkNotModified(changeToken.getEtag(), changeToken.getLastModified())) {
+            return null;
+        }
+        return jsonResponseCache.getEmployee(id, changeToken, () -> employeeService.getVersionedEmployeeById(id)).ok(webRequest);
+    }
+
+    @Operation(description = "Returns employees for a JSON array of up to 1000 ids, in the order of the ids. Ids without an employee are returned with the NOT_FOUND error instead of a result.")
+    @PostMapping("/batch")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "No ids, too many ids or a null id"),
             @ApiResponse(responseCode = "200", description = "ok, result")
     })
-    public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable Long id) {
-        return ResponseEntity.ok(employeeService.getEmployeeById(id));
+    public ResponseEntity<List<BatchItemDto<EmployeeDto>>> getEmployeesByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(employeeService.getEmployeesByIds(ids));
     }
 
     @Operation(description = "Creates an employee based on EmployeeCreateDto")
@@ -51,35 +105,85 @@ public class EmployeeController {
         return new ResponseEntity<>(employeeService.createEmployee(newEmployee), HttpStatus.CREATED);
     }
 
-    @Operation(description = "Updates an employee based on EmployeeCreateDto")
+    @Operation(description = "Imports employees from a JSON array of EmployeeCreateDto. Invalid elements are skipped and reported, all others are imported.")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Body is not a JSON array"),
+            @ApiResponse(responseCode = "200", description = "Import finished, result contains the rejected elements")
+    })
+    public ResponseEntity<EmployeeImportResultDto> importEmployees(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(employeeImportService.importEmployees(request.getInputStream()));
+    }
+
+    @Operation(description = "Imports employees from CSV with a header line and name and teamId columns. Invalid lines are skipped and reported, all others are imported.")
+    @PostMapping(value = "/import", consumes = CSV)
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Header is missing or has no name column"),
+            @ApiResponse(responseCode = "200", description = "Import finished, result contains the rejected lines")
+    })
+    public ResponseEntity<EmployeeImportResultDto> importEmployeesCsv(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(employeeImportService.importEmployeesCsv(request.getReader()));
+    }
+
+    @Operation(description = "Updates an employee based on EmployeeCreateDto. If-Match- optional ETag of the employee the update is based on.")
     @PutMapping("/{id}/update")
     @ApiResponses({
             @ApiResponse(responseCode = "404", description = "Employee/ team not found"),
-            @ApiResponse(responseCode = "200", description = "Employee successfully deleted")
+            @ApiResponse(responseCode = "409", description = "Employee was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Employee changed since the If-Match ETag"),
+            @ApiResponse(responseCode = "200", description = "Employee successfully updated, ETag of the new version")
     })
     public ResponseEntity<EmployeeDto> updateEmployee(@PathVariable Long id,
-                                                      @RequestBody EmployeeCreateDto updateEmployeeDto) {
-        return new ResponseEntity<>(employeeService.updateEmployee(id, updateEmployeeDto), HttpStatus.OK);
+                                                      @RequestBody EmployeeCreateDto updateEmployeeDto,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<EmployeeDto> updated = employeeService.updateEmployee(id, updateEmployeeDto, ChangeToken.parseIfMatch(ifMatch));
+        return updated.getChangeToken().ok(updated.getValue());
     }
 
     @Operation(description = "Deletes an employee based on employee id")
     @DeleteMapping("/{id}")
     @ApiResponses({
             @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "412", description = "Employee was changed concurrently"),
             @ApiResponse(responseCode = "200", description = "Employee deleted")
     })
     public ResponseEntity<EmployeeDto> deleteEmployee(@PathVariable Long id) {
         return new ResponseEntity<>(employeeService.deleteEmployee(id), HttpStatus.OK);
     }
 
-    @Operation(description = "Search employees based on filters. inATeam- only find employees with or without a team, teamLeadsOnly- only find employees that are team leads or all employees, name- filter for employee name or part of the name.")
+    @Operation(description = "Search employees based on filters. inATeam- only find employees with or without a team, teamLeadsOnly- only find employees that are team leads or all employees, name- filter for employee name or part of the name. "
+            + "page- page number starting from 0, size- page size, sort- id or name, optionally followed by ,desc. The total number of found employees is returned in the X-Total-Count header. "
+            + "fields- optional comma separated employee attributes (id, name), expand- optional team, to include the team id and name. "
+            + "If either is given, only the requested attributes are read and returned.")
     @GetMapping("/search")
     @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Invalid page size, sort, field or expansion"),
+            @ApiResponse(responseCode = "200", description = "ok, result",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = EmployeeDto.class))))
+    })
+    public ResponseEntity<List<?>> searchEmployees(@RequestParam(name = "inATeam", required = false) Boolean inATeam,
+                                                   @RequestParam(name = "teamLeadsOnly", required = false) Boolean teamLeadsOnly,
+                                                   @RequestParam(name = "name", required = false) String name,
+                                                   @RequestParam(name = "fields", required = false) List<String> fields,
+                                                   @RequestParam(name = "expand", required = false) List<String> expand,
+                                                   @ParameterObject @PageableDefault(size = EmployeeService.DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable) {
+        Page<?> results = fields != null || expand != null
+                ? employeeService.searchFields(inATeam, teamLeadsOnly, name, fields, expand, pageable)
+                : employeeService.search(inATeam, teamLeadsOnly, name, pageable);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
+    }
+
+    @Operation(description = "Ranked search of employees by name. name- text the employee name contains, results are ordered by similarity to it. limit- maximum number of results, offset- number of results to skip.")
+    @GetMapping("/search/name")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Empty name or invalid limit/offset"),
             @ApiResponse(responseCode = "200", description = "ok, result")
     })
-    public ResponseEntity<List<EmployeeDto>> searchEmployees(@RequestParam(name = "inATeam", required = false) Boolean inATeam,
-                                                             @RequestParam(name = "teamLeadsOnly", required = false) Boolean teamLeadsOnly,
-                                                             @RequestParam(name = "name", required = false) String name) {
-        return new ResponseEntity<>(employeeService.search(inATeam, teamLeadsOnly, name), HttpStatus.OK);
+    public ResponseEntity<List<EmployeeDto>> searchEmployeesByName(@RequestParam(name = "name") String name,
+                                                                   @RequestParam(name = "limit", required = false) Integer limit,
+                                                                   @RequestParam(name = "offset", required = false) Integer offset) {
+        return ResponseEntity.ok(employeeService.searchByName(name, limit, offset));
     }
 }
@@ -0,0 +1,76 @@
+package com.example.employeeApplication.controller;
+
+import com.example.employeeApplication.service.ExportFormat;
+import com.example.employeeApplication.service.ExportRange;
+import com.example.employeeApplication.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController("Export controller")
+@RequestMapping("/api/export")
+@Tag(name = "Export controller", description = "Bulk exports of employees and teams")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final String GZIP = "gzip";
+
+    private final ExportService exportService;
+
+    @Operation(description = "Streams employees ordered by id as gzip-compressed CSV or NDJSON with the columns id, name and teamId. "
+            + "format- csv or ndjson, afterId- only ids greater than this, toId- only ids up to this. An interrupted export is resumed with afterId set to the last received id.")
+    @GetMapping("/employees")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Unknown format or toId less than afterId"),
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public void exportEmployees(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                                @RequestParam(name = "afterId", required = false) Long afterId,
+                                @RequestParam(name = "toId", required = false) Long toId,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        ExportRange range = ExportRange.of(afterId, toId);
+        setExportHeaders(response, exportFormat, "employees");
+        exportService.exportEmployees(exportFormat, range, response.getOutputStream());
+    }
+
+    @Operation(description = "Streams teams ordered by id as gzip-compressed CSV or NDJSON with the columns id, name and teamLeadId. "
+            + "format- csv or ndjson, afterId- only ids greater than this, toId- only ids up to this. An interrupted export is resumed with afterId set to the last received id.")
+    @GetMapping("/teams")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Unknown format or toId less than afterId"),
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public void exportTeams(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                            @RequestParam(name = "afterId", required = false) Long afterId,
+                            @RequestParam(name = "toId", required = false) Long toId,
+                            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        ExportRange range = ExportRange.of(afterId, toId);
+        setExportHeaders(response, exportFormat, "teams");
+        exportService.exportTeams(exportFormat, range, response.getOutputStream());
+    }
+
+    /**
+     * Headers are set only after the parameters are validated, so an error response isn't marked as gzip-compressed.
+     */
+    private void setExportHeaders(HttpServletResponse response, ExportFormat format, String name) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension() + ".gz")
+                .build().toString());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.employeeApplication.controller;
+
+import com.example.employeeApplication.dto.EmployeeReportsDto;
+import com.example.employeeApplication.dto.ReportingCyclesDto;
+import com.example.employeeApplication.dto.ReportingLineDto;
+import com.example.employeeApplication.service.HierarchyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController("Hierarchy controller")
+@RequestMapping("/api/hierarchy")
+@Tag(name = "Hierarchy controller", description = "Reporting lines, where every employee reports to the lead of their team")
+@RequiredArgsConstructor
+public class HierarchyController {
+
+    private final HierarchyService hierarchyService;
+
+    @Operation(description = "Returns the ids of everyone reporting to the employee, directly or through other team leads, level by level. "
+            + "Use POST /api/employees/batch for their details. id- employee id")
+    @GetMapping("/employees/{id}/reports")
+    @ApiResponses({
+            @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public ResponseEntity<EmployeeReportsDto> getReports(@PathVariable Long id) {
+        return ResponseEntity.ok(hierarchyService.getReports(id));
+    }
+
+    @Operation(description = "Returns the ids of the team leads above the employee, starting with the lead of the employee's team. "
+            + "If the leads run into a lead cycle, the cycle is listed once and cyclic is true. id- employee id")
+    @GetMapping("/employees/{id}/leads")
+    @ApiResponses({
+            @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public ResponseEntity<ReportingLineDto> getReportingLine(@PathVariable Long id) {
+        return ResponseEntity.ok(hierarchyService.getReportingLine(id));
+    }
+
+    @Operation(description = "Returns the lead cycles (e.g. A leads B's team while B leads A's team), each as the employee ids along it")
+    @GetMapping("/cycles")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public ResponseEntity<ReportingCyclesDto> getCycles() {
+        return ResponseEntity.ok(hierarchyService.getCycles());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.employeeApplication.controller;
+
+import com.example.employeeApplication.dto.OrgStatisticsDto;
+import com.example.employeeApplication.service.StatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController("Statistics controller")
+@RequestMapping("/api/statistics")
+@Tag(name = "Statistics controller", description = "Org-wide statistics")
+@RequiredArgsConstructor
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    @Operation(description = "Returns employee and team counts, team lead counts and the largest teams. The statistics can be up to "
+            + "employee.statistics.max-staleness old (computedAt tells when they were computed). maxStaleness- optional lower bound in seconds, not below "
+            + "employee.statistics.min-staleness.")
+    @GetMapping("/")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "Negative staleness"),
+            @ApiResponse(responseCode = "200", description = "ok, result")
+    })
+    public ResponseEntity<OrgStatisticsDto> getStatistics(@RequestParam(name = "maxStaleness", required = false) Long maxStaleness) {
+        return ResponseEntity.ok(statisticsService.getStatistics(maxStaleness != null ? Duration.ofSeconds(maxStaleness) : null));
+    }
+}
@@ -1,16 +1,29 @@
 package com.example.employeeApplication.controller;
 
+import com.example.employeeApplication.cache.JsonResponseCache;
+import com.example.employeeApplication.dto.BatchItemDto;
+import com.example.employeeApplication.dto.ReorgDto;
 import com.example.employeeApplication.dto.TeamCreateDto;
 import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.service.ReorgService;
 import com.example.employeeApplication.service.TeamService;
+import com.example.employeeApplication.versioning.ChangeToken;
+import com.example.employeeApplication.versioning.Versioned;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,24 +34,58 @@ import java.util.List;
 public class TeamController {
 
     private final TeamService teamService;
+    private final ReorgService reorgService;
+    private final JsonResponseCache jsonResponseCache;
 
-    @Operation(description = "Returns all teams")
-    @GetMapping("/")
+    @Operation(description = "Returns all teams. Supports If-None-Match with the returned ETag, and gzip with Accept-Encoding. "
+            + "fields- optional comma separated team attributes (id, name), expand- optional comma separated relations (teamLead, employees). "
+            + "If either is given, only the requested attributes and relations are read and returned.")
+    @GetMapping(value = "/", produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "ok, result")
+            @ApiResponse(responseCode = "400", description = "Unknown field or relation"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
+            @ApiResponse(responseCode = "200", description = "ok, result",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TeamDto.class))))
     })
-    public ResponseEntity<List<TeamDto>> getAllTeams() {
-        return ResponseEntity.ok(teamService.getAllTeams());
+    public ResponseEntity<?> getAllTeams(@RequestParam(name = "fields", required = false) List<String> fields,
+                                         @RequestParam(name = "expand", required = false) List<String> expand,
+                                         WebRequest webRequest) {
+        ChangeToken changeToken = teamService.getTeamsChangeToken();
+        if (webRequest.checkNotModified(changeToken.getEtag(), changeToken.getLastModified())) {
+            return null;
+        }
+        if (fields != null || expand != null) {
+            return changeToken.ok(teamService.getAllTeamsFields(fields, expand));
+        }
+        // stored rosters are already serialized team dtos
+        return jsonResponseCache.getAllTeams(changeToken, teamService::getAllTeamsJson).ok(webRequest);
     }
 
-    @Operation(description = "Returns team based on id")
-    @GetMapping("/{id}")
+    @Operation(description = "Returns team based on id. Supports If-None-Match and If-Modified-Since with the returned ETag and Last-Modified, and gzip with Accept-Encoding.")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses({
             @ApiResponse(responseCode = "404", description = "Team not found"),
-            @ApiResponse(responseCode = "200", description = "ok, result")
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag/ date"),
+            @ApiResponse(responseCode = "200", description = "ok, result",
+                    content = @Content(schema = @Schema(implementation = TeamDto.class)))
     })
-    public ResponseEntity<TeamDto> getTeamById(@PathVariable Long id) {
-        return new ResponseEntity<>(teamService.getTeamById(id), HttpStatus.OK);
+    public ResponseEntity<byte[]> getTeamById(@PathVariable Long id, WebRequest webRequest) {
+        ChangeToken changeToken = teamService.getTeamChangeToken(id);
+        if (webRequest.checkNotModified(changeToken.getEtag(), changeToken.getLastModified())) {
+            return null;
+        }
+        return jsonResponseCache.getTeam(id, changeToken, () -> teamService.getTeamJsonById(id)).ok(webRequest);
+    }
+
+    @Operation(description = "Returns teams for a JSON array of up to 1000 ids, in the order of the ids. Ids without a team are returned with the NOT_FOUND error instead of a result.")
+    @PostMapping("/batch")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "No ids, too many ids or a null id"),
+            @ApiResponse(responseCode = "200", description = "ok, result, each result is a TeamDto")
+    })
+    public ResponseEntity<List<BatchItemDto<RawValue>>> getTeamsByIds(@RequestBody List<Long> ids) {
+        // results are the stored rosters, written into the response as they are
+        return ResponseEntity.ok(teamService.getTeamsJsonByIds(ids));
     }
 
     @Operation(description = "Creates a team based on TeamCreateDto")
@@ -53,21 +100,40 @@ public class TeamController {
     }
 
 
-    @Operation(description = "Updates a team based on TeamCreateDto")
+    @Operation(description = "Updates a team based on TeamCreateDto. If-Match- optional ETag of the team the update is based on.")
     @PutMapping("/{id}/update")
     @ApiResponses({
             @ApiResponse(responseCode = "404", description = "Employee/ team not found"),
-            @ApiResponse(responseCode = "200", description = "Employee successfully deleted")
+            @ApiResponse(responseCode = "409", description = "Team name already exists, or the team was changed concurrently"),
+            @ApiResponse(responseCode = "412", description = "Team changed since the If-Match ETag"),
+            @ApiResponse(responseCode = "200", description = "Team successfully updated, ETag of the new version")
     })
     public ResponseEntity<TeamDto> updateTeam(@PathVariable Long id,
-                                              @RequestBody TeamCreateDto updateTeamDto) {
-        return new ResponseEntity<>(teamService.updateTeam(id, updateTeamDto), HttpStatus.OK);
+                                              @RequestBody TeamCreateDto updateTeamDto,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Versioned<TeamDto> updated = teamService.updateTeam(id, updateTeamDto, ChangeToken.parseIfMatch(ifMatch));
+        return updated.getChangeToken().ok(updated.getValue());
+    }
+
+    @Operation(description = "Applies employee moves (teamId null to remove from the team), team renames and team lead changes "
+            + "(teamLeadId null to remove the lead) together: either all of them are made or none. Up to 10000 moves and 1000 team changes. "
+            + "Returns the changes made, with the previous values; changes that didn't change anything are left out.")
+    @PostMapping("/reorg")
+    @ApiResponses({
+            @ApiResponse(responseCode = "400", description = "No changes, too many changes, or an employee or team changed twice"),
+            @ApiResponse(responseCode = "404", description = "Employees, team leads and/or teams not found"),
+            @ApiResponse(responseCode = "409", description = "Team name already exists, or the team was changed concurrently"),
+            @ApiResponse(responseCode = "200", description = "ok, changes made")
+    })
+    public ResponseEntity<ReorgDto> reorg(@RequestBody ReorgDto reorg) {
+        return ResponseEntity.ok(reorgService.reorg(reorg));
     }
 
     @Operation(description = "Deletes a team based on team id")
     @DeleteMapping("/{id}")
     @ApiResponses({
             @ApiResponse(responseCode = "404", description = "Team not found"),
+            @ApiResponse(responseCode = "412", description = "Team was changed concurrently"),
             @ApiResponse(responseCode = "200", description = "Team deleted")
     })
     public ResponseEntity<TeamDto> deleteTeam(@PathVariable Long id) {
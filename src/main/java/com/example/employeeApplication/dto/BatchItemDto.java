@@ -0,0 +1,26 @@
+package com.example.employeeApplication.dto;
+
+import com.example.employeeApplication.exception.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one id of a batch lookup. Exactly one of result and error is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemDto<T> {
+    private Long id;
+    /**
+     * Found resource, null if not found
+     */
+    private T result;
+    /**
+     * NOT_FOUND if there is no resource with the id, null if found
+     */
+    private ErrorCode error;
+}
@@ -0,0 +1,18 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeImportErrorDto {
+    /**
+     * Index of the rejected element in the JSON array, or line number in the CSV file, starting from 1.
+     */
+    private long row;
+    private String message;
+}
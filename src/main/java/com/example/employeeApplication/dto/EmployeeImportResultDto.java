@@ -0,0 +1,17 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeImportResultDto {
+    private long importedCount;
+    private List<EmployeeImportErrorDto> errors;
+}
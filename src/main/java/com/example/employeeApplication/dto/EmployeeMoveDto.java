@@ -0,0 +1,22 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeMoveDto {
+    private Long employeeId;
+    /**
+     * Team the employee was in, only filled in the reorg result
+     */
+    private Long fromTeamId;
+    /**
+     * Team the employee is moved to, null to remove the employee from their team
+     */
+    private Long teamId;
+}
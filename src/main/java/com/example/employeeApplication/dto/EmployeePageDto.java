@@ -0,0 +1,20 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePageDto {
+    private List<EmployeeDto> employees;
+    /**
+     * Id of the last employee on this page, to be passed as the cursor for the next page. Null if this is the last page.
+     */
+    private Long nextCursor;
+}
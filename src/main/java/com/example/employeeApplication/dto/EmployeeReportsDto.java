@@ -0,0 +1,18 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeReportsDto {
+    private Long employeeId;
+    /**
+     * Ids of everyone reporting to the employee, directly or through other leads, level by level
+     */
+    private long[] reportIds;
+}
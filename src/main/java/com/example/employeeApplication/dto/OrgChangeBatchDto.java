@@ -0,0 +1,21 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrgChangeBatchDto {
+    private List<OrgChangeDto> changes;
+    /**
+     * Offset of the last change in this batch, to be passed as the after parameter of the next request.
+     * The requested offset if the batch is empty.
+     */
+    private Long nextOffset;
+}
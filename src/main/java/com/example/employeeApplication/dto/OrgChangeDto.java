@@ -0,0 +1,24 @@
+package com.example.employeeApplication.dto;
+
+import com.example.employeeApplication.entity.ChangedEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A changed employee or team. The change can be a create, update or delete, the current state is read from the
+ * batch endpoints (a deleted employee or team is not found).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrgChangeDto {
+    private Long offset;
+    private ChangedEntityType type;
+    private Long id;
+    private Instant changedAt;
+}
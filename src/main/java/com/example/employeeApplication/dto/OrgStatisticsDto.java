@@ -0,0 +1,34 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrgStatisticsDto {
+    private long employeeCount;
+    private long unassignedEmployeeCount;
+    private long teamCount;
+    private double averageTeamSize;
+    private long teamsWithLeadCount;
+    private long teamsWithoutLeadCount;
+    /**
+     * Number of distinct employees leading a team
+     */
+    private long teamLeadCount;
+    /**
+     * Largest teams by number of employees, largest first
+     */
+    private List<TeamSizeDto> largestTeams;
+    /**
+     * When the statistics were computed, they don't contain changes made after it
+     */
+    private Instant computedAt;
+}
@@ -0,0 +1,22 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes of a reorg, applied together. As a request, the changes to make; as a result, the changes made, with the
+ * previous values filled and the changes that changed nothing left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorgDto {
+    private List<EmployeeMoveDto> moves;
+    private List<TeamRenameDto> renames;
+    private List<TeamLeadChangeDto> leadChanges;
+}
@@ -0,0 +1,19 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportingCyclesDto {
+    /**
+     * Every lead cycle as the employee ids along the reporting line, starting with the lowest id
+     */
+    private List<long[]> cycles;
+}
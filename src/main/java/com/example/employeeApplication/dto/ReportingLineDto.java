@@ -0,0 +1,22 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportingLineDto {
+    private Long employeeId;
+    /**
+     * Ids of the leads above the employee, starting with the direct lead
+     */
+    private long[] leadIds;
+    /**
+     * Whether the leads run into a lead cycle, which then is listed once at the end of the lead ids
+     */
+    private boolean cyclic;
+}
@@ -0,0 +1,22 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamLeadChangeDto {
+    private Long teamId;
+    /**
+     * Team lead the team had, only filled in the reorg result
+     */
+    private Long previousTeamLeadId;
+    /**
+     * New team lead, null to leave the team without a lead
+     */
+    private Long teamLeadId;
+}
@@ -0,0 +1,19 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamRenameDto {
+    private Long teamId;
+    /**
+     * Name the team had, only filled in the reorg result
+     */
+    private String previousName;
+    private String name;
+}
@@ -0,0 +1,19 @@
+package com.example.employeeApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamSizeDto {
+    private Long id;
+    private String name;
+    /**
+     * Number of employees in the team
+     */
+    private long size;
+}
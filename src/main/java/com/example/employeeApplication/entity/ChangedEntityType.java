@@ -0,0 +1,6 @@
+package com.example.employeeApplication.entity;
+
+public enum ChangedEntityType {
+    EMPLOYEE,
+    TEAM
+}
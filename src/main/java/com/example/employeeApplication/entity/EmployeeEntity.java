@@ -1,33 +1,53 @@
 package com.example.employeeApplication.entity;
 
+import com.example.employeeApplication.configuration.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.Set;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "employee")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.EMPLOYEE)
 public class EmployeeEntity {
     @Id
     @Column(name = "employee_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_id_generator")
+    @SequenceGenerator(name = "employee_id_generator", sequenceName = "employee_employee_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference
     @JoinColumn(name = "team_id", referencedColumnName = "team_id")
     private TeamEntity team;
 
     @OneToMany(mappedBy = "teamLead")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.EMPLOYEE_TEAMS_LED)
     @JsonManagedReference
     Set<TeamEntity> teamsLed;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
+
 }
@@ -0,0 +1,42 @@
+package com.example.employeeApplication.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * One changed employee or team in the change feed outbox, appended by OrgChangeOutbox.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "org_change")
+public class OrgChangeEntity {
+    /**
+     * Offset of the change in the feed, assigned from OrgChangeHeadEntity
+     */
+    @Id
+    @Column(name = "change_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private ChangedEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,31 @@
+package com.example.employeeApplication.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Single row holding the offset of the last appended change.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "org_change_head")
+public class OrgChangeHeadEntity {
+    public static final Integer ID = 1;
+
+    @Id
+    @Column(name = "head_id")
+    private Integer id;
+
+    @Column(name = "last_change_id", nullable = false)
+    private Long lastChangeId;
+}
@@ -1,10 +1,14 @@
 package com.example.employeeApplication.entity;
 
+import com.example.employeeApplication.configuration.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.time.Instant;
 import java.util.Set;
 
 @Getter
@@ -14,22 +18,40 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "team")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TEAM)
 public class TeamEntity {
     @Id
     @Column(name = "team_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_id_generator")
+    @SequenceGenerator(name = "team_id_generator", sequenceName = "team_team_id_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "name")
     String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference
     @JoinColumn(name = "team_lead_id", referencedColumnName = "employee_id")
     private EmployeeEntity teamLead;
 
+    // ordered, so a team is always serialized to the same JSON
     @OneToMany(mappedBy = "team")
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.TEAM_EMPLOYEES)
     @JsonManagedReference
     Set<EmployeeEntity> employeesInTeam;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
+
 }
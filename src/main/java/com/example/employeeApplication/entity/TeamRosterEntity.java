@@ -0,0 +1,29 @@
+package com.example.employeeApplication.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Serialized TeamDto (JSON) of a team, maintained by TeamRosterProjector.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "team_roster")
+public class TeamRosterEntity {
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "roster", nullable = false, columnDefinition = "bytea")
+    private byte[] roster;
+}
@@ -0,0 +1,31 @@
+package com.example.employeeApplication.event;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.Set;
+
+/**
+ * Published by the services when employees and/or teams are created, updated or deleted.
+ * Contains the ids of all employees and teams whose dtos changed, including the reverse links
+ * (e.g. the old and the new team of an employee that switched teams). Ids can be null.
+ * The ids of rows inserted by the change are also listed as created, these rows are still at their initial version.
+ * The ids of rows updated through their entities are also listed as versioned, Hibernate increments their version itself.
+ */
+@Getter
+@Builder
+public class OrgChangedEvent {
+    @Singular
+    private final Set<Long> employeeIds;
+    @Singular
+    private final Set<Long> teamIds;
+    @Singular
+    private final Set<Long> createdEmployeeIds;
+    @Singular
+    private final Set<Long> createdTeamIds;
+    @Singular
+    private final Set<Long> versionedEmployeeIds;
+    @Singular
+    private final Set<Long> versionedTeamIds;
+}
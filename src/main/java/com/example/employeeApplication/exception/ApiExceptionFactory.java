@@ -14,4 +14,12 @@ public class ApiExceptionFactory {
     public static ApiException conflict(String message) {
         return new ApiException(HttpStatus.CONFLICT, ErrorCode.CONFLICT, message);
     }
+
+    public static ApiException badRequest(String message) {
+        return new ApiException(HttpStatus.BAD_REQUEST, ErrorCode.BAD_REQUEST, message);
+    }
+
+    public static ApiException preconditionFailed(String message) {
+        return new ApiException(HttpStatus.PRECONDITION_FAILED, ErrorCode.PRECONDITION_FAILED, message);
+    }
 }
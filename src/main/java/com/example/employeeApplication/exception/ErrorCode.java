@@ -2,5 +2,9 @@ package com.example.employeeApplication.exception;
 
 public enum ErrorCode {
     NOT_FOUND,
-    CONFLICT
+    CONFLICT,
+    BAD_REQUEST,
+    PRECONDITION_FAILED,
+    TOO_MANY_REQUESTS,
+    SERVICE_UNAVAILABLE
 }
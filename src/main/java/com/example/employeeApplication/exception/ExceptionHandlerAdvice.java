@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -27,4 +28,12 @@ public class ExceptionHandlerAdvice {
         return ResponseEntity.status(ex.getHttpStatus()).contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorMessageDto(ex));
     }
+
+    /**
+     * A concurrent transaction changed the same employee or team (version check failed on flush).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorMessageDto> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return handleApiException(ApiExceptionFactory.conflict("Changed concurrently by another request, reload and try again!"));
+    }
 }
@@ -0,0 +1,223 @@
+package com.example.employeeApplication.hierarchy;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the reporting graph: every employee reports to the lead of their team, unless they lead that
+ * team themselves. Employees are numbered by the position of their id in a sorted array, and the graph is kept in int
+ * arrays of those numbers: the lead of every employee, and the direct reports of every employee in one array sliced by
+ * offsets. Queries walk these arrays, without boxing, hashing or touching the database.
+ * <p>
+ * As every employee has at most one lead, the graph is a forest, except for lead cycles (A leads B's team while B leads
+ * A's team). The cycles are found once when the snapshot is built, so walking up from an employee can stop after going
+ * around a cycle once.
+ */
+public final class OrgHierarchy {
+
+    /**
+     * Marks a missing id in the arrays passed to build
+     */
+    public static final long NO_ID = Long.MIN_VALUE;
+
+    private static final int NONE = -1;
+    private static final long[] NO_IDS = new long[0];
+
+    private final long generation;
+    private final long[] employeeIds;
+    private final int[] leadOf;
+    private final int[] reportsStart;
+    private final int[] reports;
+    private final boolean[] onCycle;
+    private final List<long[]> cycles;
+
+    private OrgHierarchy(long generation, long[] employeeIds, int[] leadOf) {
+        this.generation = generation;
+        this.employeeIds = employeeIds;
+        this.leadOf = leadOf;
+
+        int count = employeeIds.length;
+        reportsStart = new int[count + 1];
+        for (int lead : leadOf) {
+            if (lead != NONE) {
+                reportsStart[lead + 1]++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            reportsStart[i + 1] += reportsStart[i];
+        }
+        reports = new int[reportsStart[count]];
+        int[] next = Arrays.copyOf(reportsStart, count);
+        // employees are added in id order, so the direct reports of every lead are ordered by id
+        for (int i = 0; i < count; i++) {
+            if (leadOf[i] != NONE) {
+                reports[next[leadOf[i]]++] = i;
+            }
+        }
+
+        onCycle = new boolean[count];
+        cycles = Collections.unmodifiableList(findCycles());
+    }
+
+    /**
+     * Builds the snapshot of an org.
+     *
+     * @param generation     number of org changes the snapshot reflects
+     * @param employeeIds    ids of all employees, sorted
+     * @param employeeTeamIds team id of every employee in employeeIds, NO_ID if not in a team
+     * @param teamIds        ids of all teams, sorted
+     * @param teamLeadIds    team lead id of every team in teamIds, NO_ID if without a lead
+     */
+    public static OrgHierarchy build(long generation, long[] employeeIds, long[] employeeTeamIds, long[] teamIds, long[] teamLeadIds) {
+        int[] leadOf = new int[employeeIds.length];
+        for (int i = 0; i < employeeIds.length; i++) {
+            leadOf[i] = NONE;
+            int team = employeeTeamIds[i] != NO_ID ? Arrays.binarySearch(teamIds, employeeTeamIds[i]) : NONE;
+            if (team < 0 || teamLeadIds[team] == NO_ID) {
+                continue;
+            }
+            int lead = Arrays.binarySearch(employeeIds, teamLeadIds[team]);
+            if (lead >= 0 && lead != i) {
+                leadOf[i] = lead;
+            }
+        }
+        return new OrgHierarchy(generation, employeeIds, leadOf);
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public boolean contains(long employeeId) {
+        return Arrays.binarySearch(employeeIds, employeeId) >= 0;
+    }
+
+    /**
+     * Returns everyone reporting to the employee, directly or through other leads, level by level and ordered by id
+     * within a level. An unknown employee has no reports.
+     */
+    public long[] getReports(long employeeId) {
+        int root = Arrays.binarySearch(employeeIds, employeeId);
+        if (root < 0 || reportsStart[root] == reportsStart[root + 1]) {
+            return NO_IDS;
+        }
+        // every employee is reached only through its single lead, so nobody is visited twice,
+        // except the root itself when it is on a lead cycle
+        int[] queue = new int[reportsStart[root + 1] - reportsStart[root]];
+        int size = 0;
+        int head = -1;
+        int current = root;
+        do {
+            for (int i = reportsStart[current]; i < reportsStart[current + 1]; i++) {
+                if (reports[i] == root) {
+                    continue;
+                }
+                if (size == queue.length) {
+                    queue = Arrays.copyOf(queue, queue.length * 2);
+                }
+                queue[size++] = reports[i];
+            }
+            head++;
+            current = head < size ? queue[head] : NONE;
+        } while (current != NONE);
+        return toIds(queue, size);
+    }
+
+    /**
+     * Returns the leads above the employee, starting with the direct lead. When the chain runs into a lead cycle,
+     * it goes around the cycle once and stops. An unknown employee has no leads.
+     */
+    public ReportingLine getReportingLine(long employeeId) {
+        int employee = Arrays.binarySearch(employeeIds, employeeId);
+        if (employee < 0) {
+            return new ReportingLine(NO_IDS, false);
+        }
+        int[] chain = new int[8];
+        int size = 0;
+        int cycleEntry = onCycle[employee] ? employee : NONE;
+        for (int lead = leadOf[employee]; lead != NONE && lead != cycleEntry; lead = leadOf[lead]) {
+            if (size == chain.length) {
+                chain = Arrays.copyOf(chain, chain.length * 2);
+            }
+            chain[size++] = lead;
+            if (cycleEntry == NONE && onCycle[lead]) {
+                cycleEntry = lead;
+            }
+        }
+        return new ReportingLine(toIds(chain, size), cycleEntry != NONE);
+    }
+
+    /**
+     * Returns the lead cycles, each as the employee ids along the reporting line, starting with the lowest id.
+     * Cycles are ordered by their first id.
+     */
+    public List<long[]> getCycles() {
+        return cycles;
+    }
+
+    private List<long[]> findCycles() {
+        int count = employeeIds.length;
+        // the walk that visited an employee first, 0 if not visited yet
+        int[] visitedBy = new int[count];
+        List<long[]> found = new ArrayList<>();
+        for (int start = 0; start < count; start++) {
+            int walk = start + 1;
+            int current = start;
+            while (current != NONE && visitedBy[current] == 0) {
+                visitedBy[current] = walk;
+                current = leadOf[current];
+            }
+            if (current != NONE && visitedBy[current] == walk) {
+                found.add(markCycle(current));
+            }
+        }
+        found.sort((a, b) -> Long.compare(a[0], b[0]));
+        return found;
+    }
+
+    private long[] markCycle(int entry) {
+        int lowest = entry;
+        int length = 0;
+        int current = entry;
+        do {
+            onCycle[current] = true;
+            lowest = Math.min(lowest, current);
+            length++;
+            current = leadOf[current];
+        } while (current != entry);
+
+        long[] cycle = new long[length];
+        current = lowest;
+        for (int i = 0; i < length; i++) {
+            cycle[i] = employeeIds[current];
+            current = leadOf[current];
+        }
+        return cycle;
+    }
+
+    private long[] toIds(int[] employees, int size) {
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = employeeIds[employees[i]];
+        }
+        return ids;
+    }
+
+    /**
+     * Leads above an employee, and whether they run into a lead cycle
+     */
+    @Getter
+    public static final class ReportingLine {
+        private final long[] leadIds;
+        private final boolean cyclic;
+
+        ReportingLine(long[] leadIds, boolean cyclic) {
+            this.leadIds = leadIds;
+            this.cyclic = cyclic;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.employeeApplication.hierarchy;
+
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.projection.EmployeeTeamProjection;
+import com.example.employeeApplication.repository.projection.TeamLeadProjection;
+import com.example.employeeApplication.utils.ChunkUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the current OrgHierarchy. After every committed org change, the team ids of the changed employees and the lead
+ * ids of the changed teams are read and applied to a copy of the arrays the snapshot was built from, and the new
+ * snapshot is published before the change returns to the writer. A write costs queries for the changed rows only,
+ * and reads are served from memory. The whole org is loaded only by the first read, and by the first read after
+ * a change couldn't be applied.
+ */
+@Component
+public class OrgHierarchyIndex {
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * Number of committed org changes, only incremented while holding the lock of the index
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile OrgHierarchy hierarchy;
+    // the arrays the hierarchy was built from, guarded by the lock of the index
+    private Column employeeTeamIds;
+    private Column teamLeadIds;
+
+    public OrgHierarchyIndex(EmployeeRepository employeeRepository, TeamRepository teamRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.teamRepository = teamRepository;
+        // one repeatable read transaction, so a full load reads employees and teams from the same snapshot; not read-only,
+        // so a replica lagging behind the primary can't be cached under the current generation
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrgChanged(OrgChangedEvent event) {
+        long currentGeneration = generation.incrementAndGet();
+        if (hierarchy == null) {
+            // nothing loaded yet, the first read loads the whole org
+            return;
+        }
+        try {
+            apply(currentGeneration, ids(event.getEmployeeIds()), ids(event.getTeamIds()));
+        } catch (RuntimeException e) {
+            // the snapshot misses this change, the next read loads the whole org
+            hierarchy = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the snapshot reflecting all committed org changes
+     */
+    public OrgHierarchy getHierarchy() {
+        OrgHierarchy current = hierarchy;
+        if (current != null && current.getGeneration() == generation.get()) {
+            return current;
+        }
+        return load();
+    }
+
+    /**
+     * Loads the whole org, unless the snapshot became current while waiting for the lock (a change was being applied)
+     */
+    private synchronized OrgHierarchy load() {
+        long currentGeneration = generation.get();
+        OrgHierarchy current = hierarchy;
+        if (current != null && current.getGeneration() == currentGeneration) {
+            return current;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<EmployeeTeamProjection> employees = employeeRepository.findAllTeamIds();
+            Column employeeColumn = new Column(employees.size());
+            employees.forEach(x -> employeeColumn.add(x.getId(), idOrNone(x.getTeamId())));
+            List<TeamLeadProjection> teams = teamRepository.findAllTeamLeadIds();
+            Column teamColumn = new Column(teams.size());
+            teams.forEach(x -> teamColumn.add(x.getId(), idOrNone(x.getTeamLeadId())));
+            employeeTeamIds = employeeColumn.trimmed();
+            teamLeadIds = teamColumn.trimmed();
+        });
+        return publish(currentGeneration);
+    }
+
+    /**
+     * Re-reads the changed rows and applies them to copies of the arrays. Called after the commit, so the rows are read
+     * in their committed state; a change committed in the meantime is applied right after, and reads its rows again.
+     */
+    private void apply(long currentGeneration, Set<Long> employeeIds, Set<Long> teamIds) {
+        Map<Long, Long> teamIdsOfEmployees = new HashMap<>();
+        Map<Long, Long> leadIdsOfTeams = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (List<Long> chunk : ChunkUtils.chunks(employeeIds, ChunkUtils.MAX_IN_LIST_SIZE)) {
+                employeeRepository.findAllTeamIdsByIdIn(chunk).forEach(x -> teamIdsOfEmployees.put(x.getId(), idOrNone(x.getTeamId())));
+            }
+            for (List<Long> chunk : ChunkUtils.chunks(teamIds, ChunkUtils.MAX_IN_LIST_SIZE)) {
+                teamRepository.findAllTeamLeadIdsByIdIn(chunk).forEach(x -> leadIdsOfTeams.put(x.getId(), idOrNone(x.getTeamLeadId())));
+            }
+        });
+        employeeTeamIds = employeeTeamIds.with(employeeIds, teamIdsOfEmployees);
+        teamLeadIds = teamLeadIds.with(teamIds, leadIdsOfTeams);
+        publish(currentGeneration);
+    }
+
+    private OrgHierarchy publish(long currentGeneration) {
+        OrgHierarchy built = OrgHierarchy.build(currentGeneration, employeeTeamIds.ids, employeeTeamIds.values, teamLeadIds.ids, teamLeadIds.values);
+        hierarchy = built;
+        return built;
+    }
+
+    private static Set<Long> ids(Set<Long> ids) {
+        Set<Long> result = new TreeSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(result::add);
+        return result;
+    }
+
+    private static long idOrNone(Long id) {
+        return id != null ? id : OrgHierarchy.NO_ID;
+    }
+
+    /**
+     * Ids sorted ascending, with one value per id
+     */
+    private static final class Column {
+
+        private long[] ids;
+        private long[] values;
+        private int size;
+
+        Column(int capacity) {
+            ids = new long[capacity];
+            values = new long[capacity];
+        }
+
+        /**
+         * Appends an id greater than all ids added before
+         */
+        void add(long id, long value) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(16, size * 2));
+                values = Arrays.copyOf(values, ids.length);
+            }
+            ids[size] = id;
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * Returns a copy where the changed ids have the current values, and those without one are removed
+         *
+         * @param changedIds sorted ids of the changed rows
+         * @param current    value of every changed row that still exists
+         */
+        Column with(Set<Long> changedIds, Map<Long, Long> current) {
+            Column result = new Column(size + current.size());
+            int i = 0;
+            for (Long changedId : changedIds) {
+                for (; i < size && ids[i] < changedId; i++) {
+                    result.add(ids[i], values[i]);
+                }
+                if (i < size && ids[i] == changedId) {
+                    i++;
+                }
+                Long value = current.get(changedId);
+                if (value != null) {
+                    result.add(changedId, value);
+                }
+            }
+            for (; i < size; i++) {
+                result.add(ids[i], values[i]);
+            }
+            return result.trimmed();
+        }
+
+        Column trimmed() {
+            if (size < ids.length) {
+                ids = Arrays.copyOf(ids, size);
+                values = Arrays.copyOf(values, size);
+            }
+            return this;
+        }
+    }
+}
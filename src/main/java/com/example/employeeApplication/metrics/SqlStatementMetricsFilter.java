@@ -0,0 +1,47 @@
+package com.example.employeeApplication.metrics;
+
+import com.example.employeeApplication.configuration.MetricsConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran, tagged with the same method and uri pattern as http.server.requests,
+ * so an endpoint that starts issuing a query per row shows up as a jump in its statement count.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+    private final MetricsProperties metricsProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        sqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = sqlStatementCounter.stop();
+            // same tags as http.server.requests, the uri pattern (not the actual uri) keeps the number of tags bounded
+            DistributionSummary.builder(MetricsConfig.REQUEST_SQL_STATEMENTS)
+                    .tags(Tags.of(WebMvcTags.method(request), WebMvcTags.uri(request, response,
+                            metricsProperties.getWeb().getServer().getRequest().isIgnoreTrailingSlash())))
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
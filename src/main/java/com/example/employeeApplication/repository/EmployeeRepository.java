@@ -1,25 +1,170 @@
 package com.example.employeeApplication.repository;
 
 import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.repository.projection.EmployeeCountsProjection;
+import com.example.employeeApplication.repository.projection.EmployeeNameProjection;
+import com.example.employeeApplication.repository.projection.EmployeeTeamProjection;
+import com.example.employeeApplication.repository.projection.EmployeeVersionProjection;
+import com.example.employeeApplication.repository.projection.TeamMemberProjection;
+import com.example.employeeApplication.repository.projection.VersionProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Long> {
-    List<EmployeeEntity> findAllByTeam_TeamLead_NameContainsIgnoreCase(String name);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    List<EmployeeEntity> findAllByNameContainingIgnoreCase(String name);
+public interface EmployeeRepository extends JpaRepository<EmployeeEntity, Long>, JpaSpecificationExecutor<EmployeeEntity>, EmployeeRepositoryCustom {
 
-    @Query(value = "select e from EmployeeEntity e join TeamEntity t on e = t.teamLead where t.teamLead.name like %:name% and e.team is null")
-    List<EmployeeEntity> findOnlyTeamLeadsByNameWithoutTeam(@Param("name") String name);
+    @EntityGraph(attributePaths = "team")
+    Optional<EmployeeEntity> findWithTeamById(Long id);
 
-    @Query(value = "select e from EmployeeEntity e join TeamEntity t on e = t.teamLead where t.teamLead.name like %:name% and e.team is not null")
-    List<EmployeeEntity> findOnlyTeamLeadsByNameInATeam(@Param("name") String name);
+    /**
+     * Employees matching the specification, with their teams fetched in the same statement.
+     * Build the specification from EmployeeSpecifications.
+     */
+    @Override
+    @EntityGraph(attributePaths = "team")
+    Page<EmployeeEntity> findAll(Specification<EmployeeEntity> spec, Pageable pageable);
 
-    List<EmployeeEntity> findAllByTeamIsNullAndNameContainsIgnoreCase(String name);
+    /**
+     * Keyset pagination: returns the employees with an id greater than the given cursor, ordered by id.
+     */
+    @EntityGraph(attributePaths = "team")
+    List<EmployeeEntity> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
-    List<EmployeeEntity> findAllByTeamIsNotNullAndNameContainsIgnoreCase(String name);
+    /**
+     * Streams all employees ordered by id. Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query(value = "select e from EmployeeEntity e left join fetch e.team order by e.id")
+    Stream<EmployeeEntity> streamAllOrderedById();
+
+    @EntityGraph(attributePaths = "team")
+    List<EmployeeEntity> findAllWithTeamByIdIn(Collection<Long> ids);
+
+    List<EmployeeNameProjection> findAllNamesByIdIn(Collection<Long> ids);
+
+    @Query(value = "select count(e) as employeeCount, count(e.team.id) as assignedCount from EmployeeEntity e")
+    EmployeeCountsProjection countEmployees();
+
+    /**
+     * Returns id and name of every employee in a team, with the team id read from the foreign key, ordered by id.
+     */
+    @Query(value = "select e.team.id as teamId, e.id as id, e.name as name from EmployeeEntity e where e.team is not null order by e.id")
+    List<TeamMemberProjection> findAllTeamMembers();
+
+    /**
+     * Returns the team id of every employee, read from the foreign key, ordered by id.
+     */
+    @Query(value = "select e.id as id, e.team.id as teamId from EmployeeEntity e order by e.id")
+    List<EmployeeTeamProjection> findAllTeamIds();
+
+    @Query(value = "select e.id as id, e.name as name from EmployeeEntity e")
+    List<EmployeeNameProjection> findAllNames();
+
+    long countByIdIn(Collection<Long> ids);
+
+    @Query(value = "select e.version as version, e.lastModified as lastModified from EmployeeEntity e where e.id = :id")
+    Optional<VersionProjection> findVersionById(@Param("id") Long id);
+
+    @Query(value = "select e.id as id, e.version as version, e.lastModified as lastModified from EmployeeEntity e where e.id in :ids")
+    List<EmployeeVersionProjection> findAllVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Increments the version and sets the last modification time of the employees, without loading them.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update EmployeeEntity e set e.version = e.version + 1, e.lastModified = :now where e.id in :ids")
+    int bumpVersions(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Deletes the employee only if it still has the given version.
+     *
+     * @return number of deleted employees, 0 if the employee was changed or deleted in the meantime
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from EmployeeEntity e where e.id = :id and e.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    @Query(value = "select e.id from EmployeeEntity e where e.team.id = :teamId")
+    List<Long> findIdsByTeamId(@Param("teamId") Long teamId);
+
+    /**
+     * Returns the ids of the employees in the given teams.
+     */
+    @Query(value = "select e.id from EmployeeEntity e where e.team.id in :teamIds")
+    List<Long> findIdsByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
+
+    /**
+     * Returns the team id of each of the given employees that exist, read from the foreign key.
+     */
+    @Query(value = "select e.id as id, e.team.id as teamId from EmployeeEntity e where e.id in :ids")
+    List<EmployeeTeamProjection> findAllTeamIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the ids of the teams the given employees are currently in.
+     */
+    @Query(value = "select distinct e.team.id from EmployeeEntity e where e.id in :ids and e.team is not null")
+    List<Long> findTeamIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the given employees to the team in a single statement. Pending changes are flushed first
+     * and the persistence context is cleared afterwards, so no stale employee is read later.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeEntity e set e.team = :team where e.id in :ids")
+    int assignTeam(@Param("team") TeamEntity team, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Removes the given employees from their teams in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeEntity e set e.team = null where e.id in :ids")
+    int unassignTeam(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Removes all employees from the team in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeEntity e set e.team = null where e.team = :team")
+    int removeAllFromTeam(@Param("team") TeamEntity team);
+
+    /**
+     * Removes all employees except the given ones from the team in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update EmployeeEntity e set e.team = null where e.team = :team and e.id not in :keptIds")
+    int removeFromTeamExcept(@Param("team") TeamEntity team, @Param("keptIds") Collection<Long> keptIds);
+
+    /**
+     * Ranked name search backed by the employee_name_trgm_idx trigram index (PostgreSQL only).
+     * Returns ids of employees whose lowercase name contains the pattern, ordered by trigram similarity to the query.
+     *
+     * @param pattern lowercase query with like wildcards escaped
+     * @param query   lowercase query
+     */
+    @Query(nativeQuery = true, value = "select e.employee_id from employee e where lower(e.name) like concat('%', :pattern, '%') "
+            + "order by similarity(lower(e.name), :query) desc, e.employee_id limit :limit offset :offset")
+    List<Number> searchIdsByNameSimilarity(@Param("pattern") String pattern, @Param("query") String query,
+                                           @Param("limit") int limit, @Param("offset") int offset);
 
 }
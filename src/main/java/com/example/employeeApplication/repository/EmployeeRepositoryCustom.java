@@ -0,0 +1,24 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.entity.EmployeeEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.Tuple;
+import java.util.Collection;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Prefix of the tuple aliases of team attributes
+     */
+    String TEAM_ALIAS_PREFIX = "team_";
+
+    /**
+     * Returns a page of the given attributes of employees matching the specification, selecting only their columns.
+     * The team is joined only if team attributes are requested. Tuple elements are aliased by the attribute name,
+     * team attributes by TEAM_ALIAS_PREFIX and the attribute name.
+     */
+    Page<Tuple> findAttributes(Specification<EmployeeEntity> spec, Collection<String> attributes, Collection<String> teamAttributes, Pageable pageable);
+}
@@ -0,0 +1,68 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> findAttributes(Specification<EmployeeEntity> spec, Collection<String> attributes, Collection<String> teamAttributes, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<EmployeeEntity> employee = query.from(EmployeeEntity.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        attributes.forEach(x -> selections.add(employee.get(x).alias(x)));
+        if (!teamAttributes.isEmpty()) {
+            Join<EmployeeEntity, TeamEntity> team = employee.join("team", JoinType.LEFT);
+            teamAttributes.forEach(x -> selections.add(team.get(x).alias(TEAM_ALIAS_PREFIX + x)));
+        }
+        query.multiselect(selections);
+        Predicate predicate = spec.toPredicate(employee, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), employee, builder));
+
+        TypedQuery<Tuple> pageQuery = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        // the count query is skipped when the page shows the total already
+        return PageableExecutionUtils.getPage(pageQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    private long count(Specification<EmployeeEntity> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<EmployeeEntity> employee = query.from(EmployeeEntity.class);
+        query.select(builder.count(employee));
+        Predicate predicate = spec.toPredicate(employee, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.entity.OrgChangeHeadEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrgChangeHeadRepository extends JpaRepository<OrgChangeHeadEntity, Integer> {
+
+    /**
+     * Reserves the next offsets. The updated row stays locked until the transaction ends, so appending transactions
+     * commit one after another, in offset order.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update OrgChangeHeadEntity h set h.lastChangeId = h.lastChangeId + :count where h.id = 1")
+    int advance(@Param("count") long count);
+
+    @Query(value = "select h.lastChangeId from OrgChangeHeadEntity h where h.id = 1")
+    Long findLastChangeId();
+}
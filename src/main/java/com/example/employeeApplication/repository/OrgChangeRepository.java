@@ -0,0 +1,12 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.entity.OrgChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrgChangeRepository extends JpaRepository<OrgChangeEntity, Long> {
+
+    List<OrgChangeEntity> findAllByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+}
@@ -1,12 +1,119 @@
 package com.example.employeeApplication.repository;
 
+import com.example.employeeApplication.configuration.SecondLevelCacheConfig;
 import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.repository.projection.TeamCountsProjection;
+import com.example.employeeApplication.repository.projection.TeamLeadProjection;
+import com.example.employeeApplication.repository.projection.TeamSizeProjection;
+import com.example.employeeApplication.repository.projection.VersionProjection;
+import com.example.employeeApplication.repository.projection.VersionSummaryProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TeamRepository extends JpaRepository<TeamEntity, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
 
+public interface TeamRepository extends JpaRepository<TeamEntity, Long>, TeamRepositoryCustom {
+
+    /**
+     * Returns the team with the given name. The result is kept in the query cache when the second-level cache is on,
+     * until the team table is written to.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = SecondLevelCacheConfig.TEAM_BY_NAME)
+    })
     Optional<TeamEntity> findAllByNameEqualsIgnoreCase(String name);
 
+    /**
+     * Returns the teams with their team lead and employees fetched in a single query.
+     */
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query(value = "select distinct t from TeamEntity t left join fetch t.teamLead left join fetch t.employeesInTeam where t.id in :ids")
+    List<TeamEntity> findAllWithRosterByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the team with its team lead and employees fetched in a single query.
+     */
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @Query(value = "select distinct t from TeamEntity t left join fetch t.teamLead left join fetch t.employeesInTeam where t.id = :id")
+    Optional<TeamEntity> findWithRosterById(@Param("id") Long id);
+
+    /**
+     * Returns the teams having one of the given lowercase names, ignoring case.
+     */
+    @Query(value = "select t from TeamEntity t where lower(t.name) in :names")
+    List<TeamEntity> findAllByLowerCaseNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * Returns those of the given team ids that exist.
+     */
+    @Query(value = "select t.id from TeamEntity t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select t.version as version, t.lastModified as lastModified from TeamEntity t where t.id = :id")
+    Optional<VersionProjection> findVersionById(@Param("id") Long id);
+
+    @Query(value = "select count(t) as count, sum(t.version) as versionSum, max(t.lastModified) as lastModified from TeamEntity t")
+    VersionSummaryProjection summarizeVersions();
+
+    /**
+     * Increments the version and sets the last modification time of the teams, without loading them.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "update TeamEntity t set t.version = t.version + 1, t.lastModified = :now where t.id in :ids")
+    int bumpVersions(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Deletes the team only if it still has the given version.
+     *
+     * @return number of deleted teams, 0 if the team was changed or deleted in the meantime
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from TeamEntity t where t.id = :id and t.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    /**
+     * Returns the team lead id of every team, read from the foreign key, ordered by id.
+     */
+    @Query(value = "select t.id as id, t.teamLead.id as teamLeadId from TeamEntity t order by t.id")
+    List<TeamLeadProjection> findAllTeamLeadIds();
+
+    /**
+     * Returns the team lead id of each of the given teams that exist, read from the foreign key.
+     */
+    @Query(value = "select t.id as id, t.teamLead.id as teamLeadId from TeamEntity t where t.id in :ids")
+    List<TeamLeadProjection> findAllTeamLeadIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select count(t) as teamCount, count(t.teamLead.id) as teamsWithLeadCount, count(distinct t.teamLead.id) as teamLeadCount from TeamEntity t")
+    TeamCountsProjection countTeams();
+
+    /**
+     * Returns the teams with the most employees, largest first, counted with a single grouped query.
+     */
+    @Query(value = "select t.id as id, t.name as name, count(e) as size from TeamEntity t left join t.employeesInTeam e "
+            + "group by t.id, t.name order by count(e) desc, t.id")
+    List<TeamSizeProjection> findLargestTeams(Pageable pageable);
+
+    @Query(value = "select t.id from TeamEntity t where t.teamLead.id = :employeeId")
+    List<Long> findIdsByTeamLeadId(@Param("employeeId") Long employeeId);
+
+    /**
+     * Clears the team lead of all teams led by the employee in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update TeamEntity t set t.teamLead = null where t.teamLead.id = :employeeId")
+    int clearTeamLead(@Param("employeeId") Long employeeId);
+
 }
@@ -0,0 +1,20 @@
+package com.example.employeeApplication.repository;
+
+import javax.persistence.Tuple;
+import java.util.Collection;
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+
+    /**
+     * Prefix of the tuple aliases of team lead attributes
+     */
+    String TEAM_LEAD_ALIAS_PREFIX = "teamLead_";
+
+    /**
+     * Returns the given attributes of all teams ordered by id, selecting only their columns. The team lead is joined
+     * only if team lead attributes are requested. Tuple elements are aliased by the attribute name, team lead attributes
+     * by TEAM_LEAD_ALIAS_PREFIX and the attribute name.
+     */
+    List<Tuple> findAllAttributes(Collection<String> attributes, Collection<String> teamLeadAttributes);
+}
@@ -0,0 +1,39 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TeamRepositoryCustomImpl implements TeamRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findAllAttributes(Collection<String> attributes, Collection<String> teamLeadAttributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<TeamEntity> team = query.from(TeamEntity.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        attributes.forEach(x -> selections.add(team.get(x).alias(x)));
+        if (!teamLeadAttributes.isEmpty()) {
+            Join<TeamEntity, EmployeeEntity> teamLead = team.join("teamLead", JoinType.LEFT);
+            teamLeadAttributes.forEach(x -> selections.add(teamLead.get(x).alias(TEAM_LEAD_ALIAS_PREFIX + x)));
+        }
+        query.multiselect(selections).orderBy(builder.asc(team.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.entity.TeamRosterEntity;
+import com.example.employeeApplication.repository.projection.TeamRosterProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TeamRosterRepository extends JpaRepository<TeamRosterEntity, Long> {
+
+    @Query(value = "select r.roster from TeamRosterEntity r where r.teamId = :teamId")
+    Optional<byte[]> findRosterByTeamId(@Param("teamId") Long teamId);
+
+    /**
+     * Returns the roster of every team ordered by team id, with a null roster for teams that don't have one yet.
+     */
+    @Query(value = "select t.id as teamId, r.roster as roster from TeamEntity t left join TeamRosterEntity r on r.teamId = t.id order by t.id")
+    List<TeamRosterProjection> findAllRosters();
+
+    /**
+     * Returns the rosters of those of the given teams that exist, with a null roster for teams that don't have one yet.
+     */
+    @Query(value = "select t.id as teamId, r.roster as roster from TeamEntity t left join TeamRosterEntity r on r.teamId = t.id where t.id in :ids")
+    List<TeamRosterProjection> findAllRostersByTeamIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select t.id from TeamEntity t where not exists (select r.teamId from TeamRosterEntity r where r.teamId = t.id)")
+    List<Long> findTeamIdsWithoutRoster();
+}
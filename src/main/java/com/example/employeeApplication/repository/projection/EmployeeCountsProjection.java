@@ -0,0 +1,10 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface EmployeeCountsProjection {
+    Long getEmployeeCount();
+
+    /**
+     * Number of employees in a team
+     */
+    Long getAssignedCount();
+}
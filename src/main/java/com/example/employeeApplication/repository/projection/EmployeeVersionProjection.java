@@ -0,0 +1,5 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface EmployeeVersionProjection extends VersionProjection {
+    Long getId();
+}
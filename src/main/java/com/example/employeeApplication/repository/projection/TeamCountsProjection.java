@@ -0,0 +1,12 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface TeamCountsProjection {
+    Long getTeamCount();
+
+    Long getTeamsWithLeadCount();
+
+    /**
+     * Number of distinct employees leading a team
+     */
+    Long getTeamLeadCount();
+}
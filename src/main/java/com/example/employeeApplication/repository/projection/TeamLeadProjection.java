@@ -0,0 +1,7 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface TeamLeadProjection {
+    Long getId();
+
+    Long getTeamLeadId();
+}
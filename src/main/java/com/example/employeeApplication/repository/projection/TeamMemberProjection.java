@@ -0,0 +1,9 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface TeamMemberProjection {
+    Long getTeamId();
+
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,10 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface TeamRosterProjection {
+    Long getTeamId();
+
+    /**
+     * Serialized team dto, null if the team doesn't have a roster yet
+     */
+    byte[] getRoster();
+}
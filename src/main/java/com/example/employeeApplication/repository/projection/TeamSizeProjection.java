@@ -0,0 +1,9 @@
+package com.example.employeeApplication.repository.projection;
+
+public interface TeamSizeProjection {
+    Long getId();
+
+    String getName();
+
+    Long getSize();
+}
@@ -0,0 +1,9 @@
+package com.example.employeeApplication.repository.projection;
+
+import java.time.Instant;
+
+public interface VersionProjection {
+    Long getVersion();
+
+    Instant getLastModified();
+}
@@ -0,0 +1,15 @@
+package com.example.employeeApplication.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Aggregate over all rows of a table: row count, sum of the row versions and the latest modification time.
+ * Any insert, update or delete changes the count or the version sum.
+ */
+public interface VersionSummaryProjection {
+    long getCount();
+
+    Long getVersionSum();
+
+    Instant getLastModified();
+}
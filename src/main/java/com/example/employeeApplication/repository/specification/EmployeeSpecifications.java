@@ -0,0 +1,61 @@
+package com.example.employeeApplication.repository.specification;
+
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+/**
+ * Filters for employee searches. Each filter returns null when it doesn't apply, so filters can be combined with
+ * Specification.where(...).and(...) and only the predicates that apply end up in the statement.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class EmployeeSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Employees whose name contains the given text, ignoring case. Null or empty text doesn't filter.
+     */
+    public static Specification<EmployeeEntity> nameContains(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(name.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * True- only employees in a team, false- only employees without a team, null doesn't filter.
+     */
+    public static Specification<EmployeeEntity> inATeam(Boolean inATeam) {
+        if (inATeam == null) {
+            return null;
+        }
+        return (root, query, cb) -> inATeam ? cb.isNotNull(root.get("team")) : cb.isNull(root.get("team"));
+    }
+
+    /**
+     * True- only employees leading at least one team, false or null doesn't filter.
+     * Uses an exists subquery, so an employee leading several teams is returned once.
+     */
+    public static Specification<EmployeeEntity> teamLeadsOnly(Boolean teamLeadsOnly) {
+        if (teamLeadsOnly == null || !teamLeadsOnly) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> ledTeams = query.subquery(Long.class);
+            Root<TeamEntity> team = ledTeams.from(TeamEntity.class);
+            ledTeams.select(team.get("id")).where(cb.equal(team.get("teamLead"), root));
+            return cb.exists(ledTeams);
+        };
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
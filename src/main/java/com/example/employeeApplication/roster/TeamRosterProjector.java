@@ -0,0 +1,129 @@
+package com.example.employeeApplication.roster;
+
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.entity.TeamRosterEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.TeamRosterRepository;
+import com.example.employeeApplication.utils.ChunkUtils;
+import com.example.employeeApplication.utils.ModelMapperUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManager;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the team_roster table: the serialized TeamDto of every team. The rosters of the teams named in an
+ * OrgChangedEvent are rebuilt in the same transaction as the change, so a committed change is always visible in them.
+ * Only the changed teams are rebuilt, the cost of a write depends on the size of the changed teams, not of the org.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamRosterProjector {
+
+    /**
+     * Most teams loaded at once with their members, also keeps the id lists of the queries short
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private final TeamRepository teamRepository;
+    private final TeamRosterRepository teamRosterRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // after OrgVersionListener, before OrgChangeOutbox which has to run last
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrgChanged(OrgChangedEvent event) {
+        Set<Long> teamIds = new HashSet<>(event.getTeamIds());
+        teamIds.remove(null);
+        rebuild(teamIds);
+    }
+
+    /**
+     * Builds the rosters of teams which don't have one, e.g. teams created before the table existed.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        rebuild(teamRosterRepository.findTeamIdsWithoutRoster());
+    }
+
+    /**
+     * Builds the rosters of the given teams from the database without storing them. Used by the read paths for teams
+     * without a stored roster (inserted without an OrgChangedEvent and not backfilled yet): they run in read-only
+     * transactions, possibly on a replica, and leave writing the rosters to the changes and the backfill.
+     *
+     * @param teamIds ids of the teams without a roster
+     * @return built rosters by team id, without the teams that don't exist
+     */
+    public Map<Long, byte[]> build(Collection<Long> teamIds) {
+        Map<Long, byte[]> built = new HashMap<>();
+        for (List<Long> chunk : ChunkUtils.chunks(teamIds, CHUNK_SIZE)) {
+            for (TeamDto team : ModelMapperUtils.mapTeamEntityList(teamRepository.findAllWithRosterByIdIn(chunk))) {
+                built.put(team.getId(), serialize(team));
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Rebuilds the rosters of the given teams from the database, and removes the rosters of those that no longer exist.
+     * Must be called in a read-write transaction.
+     *
+     * @param teamIds ids of the changed teams
+     */
+    public void rebuild(Collection<Long> teamIds) {
+        for (List<Long> chunk : ChunkUtils.chunks(teamIds, CHUNK_SIZE)) {
+            rebuildChunk(chunk);
+        }
+    }
+
+    private void rebuildChunk(List<Long> teamIds) {
+        // writing pending changes and dropping loaded entities, whose collections can be stale after bulk updates;
+        // also drops the teams of the previous chunk
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<Long, TeamRosterEntity> rosters = new HashMap<>();
+        teamRosterRepository.findAllById(teamIds).forEach(roster -> rosters.put(roster.getTeamId(), roster));
+        Set<Long> deletedIds = new HashSet<>(teamIds);
+        for (TeamDto team : ModelMapperUtils.mapTeamEntityList(teamRepository.findAllWithRosterByIdIn(teamIds))) {
+            deletedIds.remove(team.getId());
+            byte[] json = serialize(team);
+            TeamRosterEntity roster = rosters.get(team.getId());
+            if (roster == null) {
+                entityManager.persist(new TeamRosterEntity(team.getId(), json));
+            } else {
+                roster.setRoster(json);
+            }
+        }
+        deletedIds.retainAll(rosters.keySet());
+        if (!deletedIds.isEmpty()) {
+            teamRosterRepository.deleteAllByIdInBatch(deletedIds);
+        }
+    }
+
+    private byte[] serialize(TeamDto team) {
+        try {
+            return objectMapper.writeValueAsBytes(team);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Team " + team.getId() + " can't be serialized", e);
+        }
+    }
+}
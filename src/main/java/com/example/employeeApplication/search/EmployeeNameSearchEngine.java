@@ -0,0 +1,22 @@
+package com.example.employeeApplication.search;
+
+import java.util.List;
+
+/**
+ * Ranked employee name search. Finds employees whose name contains the query (case-insensitive), ordered by
+ * trigram similarity of the name to the query (as computed by PostgreSQL pg_trgm), then by employee id.
+ * <p>
+ * The implementation is selected with the employee.search.engine property: postgres (default) or memory.
+ */
+public interface EmployeeNameSearchEngine {
+
+    /**
+     * Returns ids of the matching employees in ranking order.
+     *
+     * @param query  lowercase, non-empty query
+     * @param limit  maximum number of ids to return
+     * @param offset number of best ranked ids to skip
+     * @return ids of found employees, best match first
+     */
+    List<Long> search(String query, int limit, int offset);
+}
@@ -0,0 +1,58 @@
+package com.example.employeeApplication.search;
+
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.projection.EmployeeNameProjection;
+import com.example.employeeApplication.utils.ChunkUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Name search on an in-memory n-gram index, for running without PostgreSQL (e.g. tests on H2). Gives the same results
+ * as PostgresTrigramNameSearchEngine. The index is loaded on startup and updated after every committed employee change.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "employee.search.engine", havingValue = "memory")
+public class InMemoryNgramNameSearchEngine implements EmployeeNameSearchEngine {
+
+    private final EmployeeRepository employeeRepository;
+    private final NgramIndex index = new NgramIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        employeeRepository.findAllNames().forEach(employee -> index.put(employee.getId(), employee.getName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrgChanged(OrgChangedEvent event) {
+        Set<Long> changedIds = new HashSet<>(event.getEmployeeIds());
+        changedIds.remove(null);
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        Set<Long> deletedIds = new HashSet<>(changedIds);
+        // an event can name any number of employees, e.g. all members of the teams changed by a reorg
+        for (List<Long> ids : ChunkUtils.chunks(changedIds, ChunkUtils.MAX_IN_LIST_SIZE)) {
+            for (EmployeeNameProjection employee : employeeRepository.findAllNamesByIdIn(ids)) {
+                index.put(employee.getId(), employee.getName());
+                deletedIds.remove(employee.getId());
+            }
+        }
+        // changed employees that no longer exist were deleted
+        deletedIds.forEach(index::remove);
+    }
+
+    @Override
+    public List<Long> search(String query, int limit, int offset) {
+        return index.search(query, limit, offset);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.employeeApplication.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from the 3-character substrings of lowercase names to ids. Substring queries of at least
+ * 3 characters only check the ids present in the posting lists of all their 3-character substrings;
+ * shorter queries check every indexed name. Thread-safe.
+ */
+public class NgramIndex {
+
+    private static final int N = 3;
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            if (name == null) {
+                return;
+            }
+            String lowerCase = name.toLowerCase();
+            names.put(id, lowerCase);
+            for (String ngram : ngrams(lowerCase)) {
+                postings.computeIfAbsent(ngram, x -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of names containing the query, ordered by trigram similarity to the query and then by id.
+     *
+     * @param query  lowercase query
+     * @param limit  maximum number of ids to return
+     * @param offset number of best ranked ids to skip
+     * @return ids of found names, best match first
+     */
+    public List<Long> search(String query, int limit, int offset) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                String name = names.get(id);
+                if (name.contains(query)) {
+                    matches.add(new Match(id, Trigrams.similarity(name, query)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparing((Match match) -> match.similarity).reversed().thenComparing(match -> match.id));
+
+        List<Long> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = offset; i < matches.size() && result.size() < limit; i++) {
+            result.add(matches.get(i).id);
+        }
+        return result;
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < N) {
+            return names.keySet();
+        }
+        // intersecting posting lists, starting from the shortest one
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String ngram : ngrams(query)) {
+            Set<Long> list = postings.get(ngram);
+            if (list == null) {
+                return Collections.emptySet();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(lists.get(i));
+        }
+        return candidates;
+    }
+
+    private void removeUnlocked(Long id) {
+        String name = names.remove(id);
+        if (name == null) {
+            return;
+        }
+        for (String ngram : ngrams(name)) {
+            Set<Long> list = postings.get(ngram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(ngram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> ngrams(String text) {
+        Set<String> ngrams = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            ngrams.add(text.substring(i, i + N));
+        }
+        return ngrams;
+    }
+
+    private static class Match {
+        private final Long id;
+        private final float similarity;
+
+        private Match(Long id, float similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.employeeApplication.search;
+
+import com.example.employeeApplication.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Name search running in PostgreSQL, using the pg_trgm trigram index on lower(name).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "employee.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresTrigramNameSearchEngine implements EmployeeNameSearchEngine {
+
+    private final EmployeeRepository employeeRepository;
+
+    @Override
+    public List<Long> search(String query, int limit, int offset) {
+        String pattern = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        List<Number> ids = employeeRepository.searchIdsByNameSimilarity(pattern, query, limit, offset);
+        List<Long> result = new ArrayList<>(ids.size());
+        ids.forEach(id -> result.add(id.longValue()));
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.employeeApplication.search;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Trigram similarity computed the same way as PostgreSQL pg_trgm similarity(): the text is lowercased and split into words
+ * on non-alphanumeric characters, each word is padded with two spaces in front and one behind, and the similarity is
+ * the number of shared distinct trigrams divided by the number of distinct trigrams in both texts.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class Trigrams {
+
+    public static float similarity(String first, String second) {
+        Set<String> firstTrigrams = trigrams(first);
+        Set<String> secondTrigrams = trigrams(second);
+        if (firstTrigrams.isEmpty() || secondTrigrams.isEmpty()) {
+            return 0f;
+        }
+        int shared = 0;
+        for (String trigram : firstTrigrams) {
+            if (secondTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        return (float) shared / (firstTrigrams.size() + secondTrigrams.size() - shared);
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        String lowerCase = text.toLowerCase();
+        int wordStart = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            boolean wordChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (wordChar && wordStart < 0) {
+                wordStart = i;
+            } else if (!wordChar && wordStart >= 0) {
+                String padded = "  " + lowerCase.substring(wordStart, i) + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    trigrams.add(padded.substring(j, j + 3));
+                }
+                wordStart = -1;
+            }
+        }
+        return trigrams;
+    }
+}
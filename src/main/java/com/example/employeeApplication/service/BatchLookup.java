@@ -0,0 +1,53 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.dto.BatchItemDto;
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import com.example.employeeApplication.exception.ErrorCode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Request validation and result ordering shared by the batch lookups of the services.
+ */
+final class BatchLookup {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private BatchLookup() {
+    }
+
+    /**
+     * Returns the distinct requested ids. If there are no ids, more than MAX_BATCH_SIZE ids or a null id,
+     * bad request API exception will be thrown.
+     */
+    static Set<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw ApiExceptionFactory.badRequest("Between 1 and " + MAX_BATCH_SIZE + " ids must be requested!");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.contains(null)) {
+            throw ApiExceptionFactory.badRequest("Requested ids must not be null!");
+        }
+        return distinctIds;
+    }
+
+    /**
+     * Returns one item per requested id, in request order (repeated ids are repeated), marking ids without a result as not found.
+     */
+    static <T> List<BatchItemDto<T>> inRequestOrder(List<Long> ids, Map<Long, T> found) {
+        List<BatchItemDto<T>> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T result = found.get(id);
+            items.add(BatchItemDto.<T>builder()
+                    .id(id)
+                    .result(result)
+                    .error(result == null ? ErrorCode.NOT_FOUND : null)
+                    .build());
+        }
+        return items;
+    }
+}
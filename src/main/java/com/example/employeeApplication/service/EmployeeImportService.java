@@ -0,0 +1,241 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.configuration.EmployeeImportProperties;
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.EmployeeImportErrorDto;
+import com.example.employeeApplication.dto.EmployeeImportResultDto;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.utils.CsvUtils;
+import com.example.employeeApplication.utils.ModelMapperUtils;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class EmployeeImportService {
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final EmployeeImportProperties importProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports employees from a JSON array of EmployeeCreateDto objects. The array is read element by element,
+     * so the whole request body is never held in memory. Invalid elements (no name, name too long, team not found)
+     * are skipped and reported, all other elements are imported. If the body is not a JSON array, bad request API exception will be thrown.
+     *
+     * @param json stream with the JSON array
+     * @return number of imported employees and the rejected elements
+     */
+    public EmployeeImportResultDto importEmployees(InputStream json) throws IOException {
+        EmployeeImport employeeImport = new EmployeeImport();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw ApiExceptionFactory.badRequest("Expected a JSON array of employees!");
+            }
+            long row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw ApiExceptionFactory.badRequest("JSON array of employees is not closed!");
+                }
+                row++;
+                // reading each element as a tree first, so an element with wrong types doesn't break parsing of the rest
+                JsonNode element = parser.readValueAsTree();
+                try {
+                    employeeImport.add(row, objectMapper.treeToValue(element, EmployeeCreateDto.class));
+                } catch (JsonProcessingException e) {
+                    employeeImport.reject(row, "Invalid employee: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonParseException e) {
+            throw ApiExceptionFactory.badRequest("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return employeeImport.finish();
+    }
+
+    /**
+     * Imports employees from CSV. The first line is a header containing a "name" column and optionally a "teamId" column,
+     * other columns are ignored. Lines are read one by one, so the whole file is never held in memory.
+     * Invalid lines (malformed, no name, name too long, team not found) are skipped and reported, all other lines are imported.
+     * If the header doesn't contain the name column, bad request API exception will be thrown.
+     *
+     * @param csv reader of the CSV content
+     * @return number of imported employees and the rejected lines
+     */
+    public EmployeeImportResultDto importEmployeesCsv(Reader csv) throws IOException {
+        EmployeeImport employeeImport = new EmployeeImport();
+        BufferedReader reader = new BufferedReader(csv);
+        List<String> header = parseHeader(reader.readLine());
+        int nameColumn = header.indexOf("name");
+        int teamIdColumn = header.indexOf("teamid");
+        if (nameColumn < 0) {
+            throw ApiExceptionFactory.badRequest("CSV header must contain a name column!");
+        }
+
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = CsvUtils.parseLine(line);
+            if (fields == null) {
+                employeeImport.reject(lineNumber, "Malformed CSV line!");
+                continue;
+            }
+            Long teamId = null;
+            String teamIdField = teamIdColumn >= 0 && teamIdColumn < fields.size() ? fields.get(teamIdColumn).trim() : "";
+            if (!teamIdField.isEmpty()) {
+                try {
+                    teamId = Long.valueOf(teamIdField);
+                } catch (NumberFormatException e) {
+                    employeeImport.reject(lineNumber, "Team id is not a number!");
+                    continue;
+                }
+            }
+            employeeImport.add(lineNumber, EmployeeCreateDto.builder()
+                    .name(nameColumn < fields.size() ? fields.get(nameColumn).trim() : null)
+                    .teamId(teamId)
+                    .build());
+        }
+        return employeeImport.finish();
+    }
+
+    private List<String> parseHeader(String headerLine) {
+        List<String> header = headerLine != null ? CsvUtils.parseLine(headerLine) : null;
+        if (header == null) {
+            throw ApiExceptionFactory.badRequest("CSV header is missing or malformed!");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        header.forEach(column -> columns.add(column.trim().toLowerCase()));
+        return columns;
+    }
+
+    /**
+     * State of one import: rows waiting to be inserted, team ids already checked, and the rejected rows.
+     * Rows are inserted in chunks of the configured batch size, and each team id is looked up only once per import.
+     */
+    private class EmployeeImport {
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<EmployeeCreateDto> pendingEmployees = new ArrayList<>();
+        private final Set<Long> existingTeamIds = new HashSet<>();
+        private final Set<Long> missingTeamIds = new HashSet<>();
+        private final Set<Long> changedTeamIds = new HashSet<>();
+        private final Set<Long> importedIds = new HashSet<>();
+        private final List<EmployeeImportErrorDto> errors = new ArrayList<>();
+        private long importedCount;
+
+        void add(long row, EmployeeCreateDto employee) {
+            if (employee == null || employee.getName() == null || employee.getName().isEmpty()) {
+                reject(row, "Employee name is missing!");
+                return;
+            }
+            if (employee.getName().length() > MAX_NAME_LENGTH) {
+                reject(row, "Employee name is longer than " + MAX_NAME_LENGTH + " characters!");
+                return;
+            }
+            pendingRows.add(row);
+            pendingEmployees.add(employee);
+            if (pendingEmployees.size() >= importProperties.getBatchSize()) {
+                insertPending();
+            }
+        }
+
+        void reject(long row, String message) {
+            errors.add(EmployeeImportErrorDto.builder().row(row).message(message).build());
+        }
+
+        EmployeeImportResultDto finish() {
+            insertPending();
+            eventPublisher.publishEvent(OrgChangedEvent.builder()
+                    .employeeIds(importedIds)
+                    .createdEmployeeIds(importedIds)
+                    .teamIds(changedTeamIds)
+                    .build());
+            return EmployeeImportResultDto.builder()
+                    .importedCount(importedCount)
+                    .errors(errors)
+                    .build();
+        }
+
+        private void insertPending() {
+            if (pendingEmployees.isEmpty()) {
+                return;
+            }
+            checkTeams();
+
+            List<EmployeeEntity> toSave = new ArrayList<>(pendingEmployees.size());
+            for (int i = 0; i < pendingEmployees.size(); i++) {
+                EmployeeCreateDto employee = pendingEmployees.get(i);
+                if (employee.getTeamId() != null && missingTeamIds.contains(employee.getTeamId())) {
+                    reject(pendingRows.get(i), "Selected team doesn't exist!");
+                    continue;
+                }
+                EmployeeEntity employeeEntity = ModelMapperUtils.mapEmployeeCreateDto(employee);
+                if (employee.getTeamId() != null) {
+                    employeeEntity.setTeam(entityManager.getReference(TeamEntity.class, employee.getTeamId()));
+                    changedTeamIds.add(employee.getTeamId());
+                }
+                toSave.add(employeeEntity);
+            }
+            employeeRepository.saveAll(toSave);
+            toSave.forEach(x -> importedIds.add(x.getId()));
+            // sending the inserts as one batch and detaching the inserted employees, so memory use stays constant
+            entityManager.flush();
+            entityManager.clear();
+
+            importedCount += toSave.size();
+            pendingRows.clear();
+            pendingEmployees.clear();
+        }
+
+        private void checkTeams() {
+            Set<Long> uncheckedTeamIds = new HashSet<>();
+            for (EmployeeCreateDto employee : pendingEmployees) {
+                Long teamId = employee.getTeamId();
+                if (teamId != null && !existingTeamIds.contains(teamId) && !missingTeamIds.contains(teamId)) {
+                    uncheckedTeamIds.add(teamId);
+                }
+            }
+            if (uncheckedTeamIds.isEmpty()) {
+                return;
+            }
+            existingTeamIds.addAll(teamRepository.findExistingIds(uncheckedTeamIds));
+            uncheckedTeamIds.removeAll(existingTeamIds);
+            missingTeamIds.addAll(uncheckedTeamIds);
+        }
+    }
+}
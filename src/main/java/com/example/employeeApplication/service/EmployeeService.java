@@ -1,44 +1,212 @@
 package com.example.employeeApplication.service;
 
+import com.example.employeeApplication.coalescing.Coalesced;
+import com.example.employeeApplication.configuration.CacheConfig;
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.dto.BatchItemDto;
 import com.example.employeeApplication.dto.EmployeeCreateDto;
 import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.EmployeePageDto;
 import com.example.employeeApplication.entity.EmployeeEntity;
 import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
 import com.example.employeeApplication.exception.ApiExceptionFactory;
 import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.EmployeeRepositoryCustom;
 import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.projection.EmployeeVersionProjection;
+import com.example.employeeApplication.repository.specification.EmployeeSpecifications;
+import com.example.employeeApplication.search.EmployeeNameSearchEngine;
 import com.example.employeeApplication.utils.ModelMapperUtils;
+import com.example.employeeApplication.versioning.ChangeToken;
+import com.example.employeeApplication.versioning.Versioned;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class EmployeeService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final List<String> SEARCH_SORT_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "name"));
+    public static final List<String> SEARCH_EXPANSIONS = Collections.singletonList("team");
+
     private final EmployeeRepository employeeRepository;
     private final TeamRepository teamRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeNameSearchEngine nameSearchEngine;
 
     /**
-     * Returns all employee dtos
+     * Returns one page of employee dtos ordered by id, using keyset pagination on the employee id.
+     * If the limit is not between 1 and MAX_PAGE_SIZE, bad request API exception will be thrown.
      *
-     * @return all existing employee dtos
+     * @param cursor id of the last employee of the previous page, null for the first page
+     * @param limit  maximum number of employees on the page, null for DEFAULT_PAGE_SIZE
+     * @return page of employee dtos, with the cursor for the next page
      */
-    public List<EmployeeDto> getAllEmployees() {
-        return ModelMapperUtils.mapEmployeeEntityList(employeeRepository.findAll());
+    @Transactional(readOnly = true)
+    public EmployeePageDto getEmployeesPage(Long cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw ApiExceptionFactory.badRequest("Limit must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        // fetching one extra row to know if there is a next page
+        List<EmployeeEntity> results = employeeRepository.findAllByIdGreaterThanOrderByIdAsc(cursor != null ? cursor : 0L, PageRequest.of(0, pageSize + 1));
+        Long nextCursor = null;
+        if (results.size() > pageSize) {
+            results = results.subList(0, pageSize);
+            nextCursor = results.get(pageSize - 1).getId();
+        }
+        return EmployeePageDto.builder()
+                .employees(ModelMapperUtils.mapEmployeeEntityList(results))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Writes all employees ordered by id into the output stream as newline-delimited JSON, one employee dto per line.
+     * Rows are read from a database cursor and detached after being written, so memory use doesn't depend on the number of employees.
+     *
+     * @param outputStream stream to write into, it is flushed but not closed
+     */
+    @Transactional(readOnly = true)
+    public void streamAllEmployees(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(EmployeeDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<EmployeeEntity> employees = employeeRepository.streamAllOrderedById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are separated by the written line breaks only, not by the default space between root values
+            generator.setRootValueSeparator(null);
+            Iterator<EmployeeEntity> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                EmployeeEntity employeeEntity = iterator.next();
+                writer.writeValue(generator, ModelMapperUtils.mapEmployeeEntity(employeeEntity));
+                generator.writeRaw('\n');
+                entityManager.detach(employeeEntity);
+            }
+        }
     }
 
     /**
      * Returns an employee dto based on employee id parameter. If employee not found, not found API exception will be thrown.
+     * The employees cache holds each dto with the version it was read with, and a cached dto is only returned while the
+     * employee still has that version, so a dto put back by a read that overlapped a change is never served.
      *
      * @param id id of the employee
      * @return found employee dto
      */
+    @Coalesced
+    @Transactional(readOnly = true)
     public EmployeeDto getEmployeeById(Long id) {
-        return ModelMapperUtils.mapEmployeeEntity(employeeRepository.findById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!")));
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        Versioned<EmployeeDto> cached = cachedEmployee(cache, id);
+        if (cached != null && cached.getChangeToken().getEtag().equals(getEmployeeChangeToken(id).getEtag())) {
+            return cached.getValue();
+        }
+        Versioned<EmployeeDto> employee = getVersionedEmployeeById(id);
+        if (cache != null) {
+            cache.put(id, employee);
+        }
+        return employee.getValue();
+    }
+
+    /**
+     * Returns an employee dto together with the change token of the same row, both taken from one read of the employee.
+     * The employees cache is bypassed. If employee not found, not found API exception will be thrown.
+     *
+     * @param id id of the employee
+     * @return found employee dto and its change token
+     */
+    @Transactional(readOnly = true)
+    public Versioned<EmployeeDto> getVersionedEmployeeById(Long id) {
+        return versioned(employeeRepository.findWithTeamById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!")));
+    }
+
+    /**
+     * Returns employee dtos for a list of ids, in the order of the ids. Cached employees are taken from the cache if their
+     * version didn't change, which is checked for all of them in a single query; all others are loaded with their team
+     * in a single query. Ids without an employee are marked as not found.
+     * If no ids or more than 1000 ids are given, bad request API exception will be thrown.
+     *
+     * @param ids ids of the employees, can repeat
+     * @return one item per requested id
+     */
+    @Transactional(readOnly = true)
+    public List<BatchItemDto<EmployeeDto>> getEmployeesByIds(List<Long> ids) {
+        Set<Long> missingIds = BatchLookup.distinctIds(ids);
+        Map<Long, EmployeeDto> found = new HashMap<>();
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        Map<Long, Versioned<EmployeeDto>> cached = new HashMap<>();
+        for (Long id : missingIds) {
+            Versioned<EmployeeDto> employee = cachedEmployee(cache, id);
+            if (employee != null) {
+                cached.put(id, employee);
+            }
+        }
+        if (!cached.isEmpty()) {
+            for (EmployeeVersionProjection version : employeeRepository.findAllVersionsByIdIn(cached.keySet())) {
+                Versioned<EmployeeDto> employee = cached.get(version.getId());
+                if (employee.getChangeToken().getEtag().equals(ChangeToken.of(version).getEtag())) {
+                    found.put(version.getId(), employee.getValue());
+                }
+            }
+            missingIds.removeAll(found.keySet());
+        }
+        if (!missingIds.isEmpty()) {
+            for (EmployeeEntity employeeEntity : employeeRepository.findAllWithTeamByIdIn(missingIds)) {
+                found.put(employeeEntity.getId(), ModelMapperUtils.mapEmployeeEntity(employeeEntity));
+            }
+        }
+        return BatchLookup.inRequestOrder(ids, found);
+    }
+
+    /**
+     * Returns the change token of an employee, read from its version columns only. If employee not found, not found API exception will be thrown.
+     *
+     * @param id id of the employee
+     * @return change token of the employee
+     */
+    @Transactional(readOnly = true)
+    public ChangeToken getEmployeeChangeToken(Long id) {
+        return ChangeToken.of(employeeRepository.findVersionById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!")));
     }
 
     /**
@@ -49,84 +217,196 @@ public class EmployeeService {
      * @return returns the newly created employee dto
      */
     public EmployeeDto createEmployee(EmployeeCreateDto newEmployee) {
+        Long teamId = newEmployee != null ? newEmployee.getTeamId() : null;
         TeamEntity teamToSave = null;
-        if (newEmployee != null && newEmployee.getTeamId() != null) {
-            teamToSave = teamRepository.findById(newEmployee.getTeamId()).orElseThrow(() -> ApiExceptionFactory.notFound("Selected team doesn't exist!"));
+        if (teamId != null) {
+            teamToSave = teamRepository.findById(teamId).orElseThrow(() -> ApiExceptionFactory.notFound("Selected team doesn't exist!"));
         }
-        EmployeeEntity employeeToSave = ModelMapperUtils.map(newEmployee, EmployeeEntity.class);
+        EmployeeEntity employeeToSave = ModelMapperUtils.mapEmployeeCreateDto(newEmployee);
         employeeToSave.setTeam(teamToSave);
 
-        return ModelMapperUtils.map(employeeRepository.save(employeeToSave), EmployeeDto.class);
+        EmployeeEntity saved = employeeRepository.save(employeeToSave);
+        eventPublisher.publishEvent(OrgChangedEvent.builder()
+                .employeeId(saved.getId())
+                .createdEmployeeId(saved.getId())
+                .teamId(teamId)
+                .build());
+        return ModelMapperUtils.mapEmployeeEntity(saved);
     }
 
     /**
      * Updates an employee based on EmployeeCreateDto. If team is filled but does not exist, not found API exception will be thrown.
-     * Employee can be saved without a team.
+     * Employee can be saved without a team. If the expected version is given and the employee has a different version,
+     * precondition failed API exception will be thrown.
      *
      * @param updateEmployeeDto data for updating the employee
      * @param id                id of the employee to be updated
-     * @return returns the updated employee dto
+     * @param expectedVersion   version the client based the update on (from If-Match), null to skip the check
+     * @return returns the updated employee dto with its new change token
      */
-    public EmployeeDto updateEmployee(Long id, EmployeeCreateDto updateEmployeeDto) {
-        EmployeeEntity employeeEntity = employeeRepository.findById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!"));
+    public Versioned<EmployeeDto> updateEmployee(Long id, EmployeeCreateDto updateEmployeeDto, Long expectedVersion) {
+        EmployeeEntity employeeEntity = employeeRepository.findWithTeamById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!"));
+        if (expectedVersion != null && !expectedVersion.equals(employeeEntity.getVersion())) {
+            throw ApiExceptionFactory.preconditionFailed("Employee was changed in the meantime!");
+        }
+        OrgChangedEvent.OrgChangedEventBuilder changes = OrgChangedEvent.builder().employeeId(id);
+        if (employeeEntity.getTeam() != null) {
+            changes.teamId(employeeEntity.getTeam().getId());
+        }
 
+        Long teamId = updateEmployeeDto.getTeamId();
         TeamEntity teamEntity = null;
-        if (updateEmployeeDto.getTeamId() != null) {
-            teamEntity = teamRepository.findById(updateEmployeeDto.getTeamId()).orElseThrow(() -> ApiExceptionFactory.notFound("Selected team doesn't exist!"));
+        if (teamId != null) {
+            teamEntity = teamRepository.findById(teamId).orElseThrow(() -> ApiExceptionFactory.notFound("Selected team doesn't exist!"));
+            changes.teamId(teamId);
         }
         employeeEntity.setTeam(teamEntity);
         if (updateEmployeeDto.getName() != null && !updateEmployeeDto.getName().isEmpty()) {
             employeeEntity.setName(updateEmployeeDto.getName());
+            // team lead name is a part of the dtos of the led teams
+            employeeEntity.getTeamsLed().forEach(x -> changes.teamId(x.getId()));
         }
 
-        employeeEntity = employeeRepository.save(employeeEntity);
-        return ModelMapperUtils.mapEmployeeEntity(employeeEntity);
+        // every update changes a column, so Hibernate increments the version once, and the new version is known here
+        employeeEntity.setLastModified(Instant.now());
+        employeeEntity = employeeRepository.saveAndFlush(employeeEntity);
+        eventPublisher.publishEvent(changes.versionedEmployeeId(id).build());
+        return versioned(employeeEntity);
     }
 
 
     /**
      * Deletes an employee based on employee id. If the employee cannot be found, not found API exception will be thrown,
+     * if it was changed after it was loaded, precondition failed API exception will be thrown.
      *
      * @param id id of the employee to be deleted
      * @return the deleted employee
      */
     public EmployeeDto deleteEmployee(Long id) {
-        EmployeeEntity employeeEntity = employeeRepository.findById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!"));
+        EmployeeEntity employeeEntity = employeeRepository.findWithTeamById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Employee with given id not found!"));
+        OrgChangedEvent.OrgChangedEventBuilder changes = OrgChangedEvent.builder().employeeId(id);
+        if (employeeEntity.getTeam() != null) {
+            changes.teamId(employeeEntity.getTeam().getId());
+        }
+        EmployeeDto deleted = ModelMapperUtils.mapEmployeeEntity(employeeEntity);
         // clearing all teams lead by employee to be deleted
-        employeeEntity.getTeamsLed().forEach(x -> x.setTeamLead(null));
-        teamRepository.saveAll(employeeEntity.getTeamsLed());
-        employeeRepository.delete(employeeEntity);
-        return ModelMapperUtils.mapEmployeeEntity(employeeEntity);
+        changes.teamIds(teamRepository.findIdsByTeamLeadId(id));
+        teamRepository.clearTeamLead(id);
+        // deleting the loaded version only, so a concurrent update isn't silently overwritten by the delete
+        if (employeeRepository.deleteByIdAndVersion(id, employeeEntity.getVersion()) == 0) {
+            throw ApiExceptionFactory.preconditionFailed("Employee was changed in the meantime!");
+        }
+        eventPublisher.publishEvent(changes.build());
+        return deleted;
     }
 
     /**
      * Searches for employees based on 3 optional filters. Any filter can be null and in that case the results won't be filtered based on the null filters.
+     * All filters are combined into a single statement. If the page size is not between 1 and MAX_PAGE_SIZE, or the results are sorted by
+     * anything other than id or name, bad request API exception will be thrown.
      *
      * @param inATeam       filter for employees that are in a team or not. True- only employees in a team, false- only employees without a team.
      * @param teamLeadsOnly filters for employees that are team leads. True- only team leads, false- all employees
-     * @param name          filter for employee name or part of the name
-     * @return list of found employees based on the search parameters
+     * @param name          filter for employee name or part of the name, ignoring case
+     * @param pageable      page and sort order of the results
+     * @return page of found employees based on the search parameters
      */
-    public List<EmployeeDto> search(Boolean inATeam, Boolean teamLeadsOnly, String name) {
-        if (name == null) {
-            name = "";
-        }
-        List<EmployeeEntity> results;
-        if (teamLeadsOnly != null && teamLeadsOnly) {
-            if (inATeam != null && inATeam) {
-                results = employeeRepository.findOnlyTeamLeadsByNameInATeam(name);
-            } else if (inATeam != null) {
-                results = employeeRepository.findOnlyTeamLeadsByNameWithoutTeam(name);
-            } else {
-                results = employeeRepository.findAllByTeam_TeamLead_NameContainsIgnoreCase(name);
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Page<EmployeeDto> search(Boolean inATeam, Boolean teamLeadsOnly, String name, Pageable pageable) {
+        Page<EmployeeEntity> results = employeeRepository.findAll(searchFilters(inATeam, teamLeadsOnly, name), stablePageable(pageable));
+        return new PageImpl<>(ModelMapperUtils.mapEmployeeEntityList(results.getContent()), pageable, results.getTotalElements());
+    }
+
+    /**
+     * Same search as search, returning only the requested attributes of the employees. Only the columns of the requested
+     * attributes are selected, and the team is joined only if expanded. If a field or expansion other than the allowed ones
+     * is given, bad request API exception will be thrown.
+     *
+     * @param fields   attributes of the employees, any of id and name, null or empty for all
+     * @param expand   relations to include, team (its id and name), null or empty for none
+     * @return page of found employees, each a map of the requested attributes
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> searchFields(Boolean inATeam, Boolean teamLeadsOnly, String name,
+                                                  List<String> fields, List<String> expand, Pageable pageable) {
+        Set<String> attributes = SparseFields.parse(fields, SparseFields.ATTRIBUTES, SparseFields.ATTRIBUTES, "fields");
+        boolean withTeam = SparseFields.parse(expand, SEARCH_EXPANSIONS, Collections.emptyList(), "expand").contains("team");
+        Collection<String> teamAttributes = withTeam ? SparseFields.ATTRIBUTES : Collections.emptyList();
+
+        Page<Tuple> results = employeeRepository.findAttributes(searchFilters(inATeam, teamLeadsOnly, name), attributes, teamAttributes, stablePageable(pageable));
+        return results.map(tuple -> {
+            Map<String, Object> row = SparseFields.row(tuple, attributes);
+            if (withTeam) {
+                row.put("team", SparseFields.relation(tuple, EmployeeRepositoryCustom.TEAM_ALIAS_PREFIX, teamAttributes));
             }
-        } else {
-            if (inATeam != null && inATeam) {
-                results = employeeRepository.findAllByTeamIsNotNullAndNameContainsIgnoreCase(name);
-            } else if (inATeam != null) {
-                results = employeeRepository.findAllByTeamIsNullAndNameContainsIgnoreCase(name);
-            } else {
-                results = employeeRepository.findAllByNameContainingIgnoreCase(name);
+            return row;
+        });
+    }
+
+    private static Versioned<EmployeeDto> versioned(EmployeeEntity employeeEntity) {
+        return Versioned.of(ChangeToken.of(employeeEntity.getVersion(), employeeEntity.getLastModified()), ModelMapperUtils.mapEmployeeEntity(employeeEntity));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Versioned<EmployeeDto> cachedEmployee(Cache cache, Long id) {
+        return cache != null ? (Versioned<EmployeeDto>) cache.get(id, Versioned.class) : null;
+    }
+
+    private Specification<EmployeeEntity> searchFilters(Boolean inATeam, Boolean teamLeadsOnly, String name) {
+        return Specification.where(EmployeeSpecifications.nameContains(name))
+                .and(EmployeeSpecifications.inATeam(inATeam))
+                .and(EmployeeSpecifications.teamLeadsOnly(teamLeadsOnly));
+    }
+
+    private Pageable stablePageable(Pageable pageable) {
+        if (pageable.getPageSize() < 1 || pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw ApiExceptionFactory.badRequest("Page size must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw ApiExceptionFactory.badRequest("Employees can only be sorted by " + SEARCH_SORT_PROPERTIES + "!");
+            }
+        }
+        // ordering ties by id, so pages don't overlap or skip employees with the same name
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
+    /**
+     * Searches for employees whose name contains the given text (case-insensitive), ranked by trigram similarity of the name
+     * to the text, best match first. If the text is empty, the limit is not between 1 and MAX_PAGE_SIZE, or the offset is negative,
+     * bad request API exception will be thrown.
+     *
+     * @param name   text to search for
+     * @param limit  maximum number of results, null for DEFAULT_SEARCH_LIMIT
+     * @param offset number of best ranked results to skip, null for 0
+     * @return list of found employees in ranking order
+     */
+    @Transactional(readOnly = true)
+    public List<EmployeeDto> searchByName(String name, Integer limit, Integer offset) {
+        if (name == null || name.trim().isEmpty()) {
+            throw ApiExceptionFactory.badRequest("Name must not be empty!");
+        }
+        int pageSize = limit != null ? limit : DEFAULT_SEARCH_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw ApiExceptionFactory.badRequest("Limit must be between 1 and " + MAX_PAGE_SIZE + "!");
+        }
+        if (offset != null && offset < 0) {
+            throw ApiExceptionFactory.badRequest("Offset must not be negative!");
+        }
+        List<Long> ids = nameSearchEngine.search(name.trim().toLowerCase(), pageSize, offset != null ? offset : 0);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, EmployeeEntity> employeesById = new HashMap<>();
+        employeeRepository.findAllWithTeamByIdIn(ids).forEach(x -> employeesById.put(x.getId(), x));
+        List<EmployeeEntity> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // skipping employees deleted after the search
+            if (employeesById.containsKey(id)) {
+                results.add(employeesById.get(id));
             }
         }
         return ModelMapperUtils.mapEmployeeEntityList(results);
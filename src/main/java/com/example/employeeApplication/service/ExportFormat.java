@@ -0,0 +1,41 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Encodings of the exported rows.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    /**
+     * Header line with the column names, then one line per row
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * One JSON object per line
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    /**
+     * Returns the format of the given name, ignoring case. If no format has the name, bad request API exception will be thrown.
+     *
+     * @param name name of the format
+     * @return found format
+     */
+    public static ExportFormat parse(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw ApiExceptionFactory.badRequest("Export format must be csv or ndjson!");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Range of exported ids: greater than afterId, up to and including toId. An interrupted export is resumed by
+ * requesting the range after the last received id.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ExportRange {
+
+    private final long afterId;
+    private final long toId;
+
+    /**
+     * Creates a range. If toId is less than afterId, bad request API exception will be thrown.
+     *
+     * @param afterId exported ids are greater, null for no lower bound
+     * @param toId    exported ids are less or equal, null for no upper bound
+     * @return the range
+     */
+    public static ExportRange of(Long afterId, Long toId) {
+        ExportRange range = new ExportRange(afterId != null ? afterId : Long.MIN_VALUE, toId != null ? toId : Long.MAX_VALUE);
+        if (range.toId < range.afterId) {
+            throw ApiExceptionFactory.badRequest("toId can't be less than afterId!");
+        }
+        return range;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.configuration.ExportProperties;
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.utils.CsvUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports of all employees and teams for bulk consumers. Rows are read with plain JDBC from a forward-only cursor,
+ * fetched from the database in chunks of employee.export.fetch-size, and encoded into the gzip stream one at a time,
+ * so no entity is loaded and memory use doesn't depend on the number of rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final String EMPLOYEES_QUERY = "select employee_id, name, team_id from employee"
+            + " where employee_id > ? and employee_id <= ? order by employee_id";
+    private static final List<String> EMPLOYEE_COLUMNS = Arrays.asList("id", "name", "teamId");
+
+    private static final String TEAMS_QUERY = "select team_id, name, team_lead_id from team"
+            + " where team_id > ? and team_id <= ? order by team_id";
+    private static final List<String> TEAM_COLUMNS = Arrays.asList("id", "name", "teamLeadId");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+
+    /**
+     * Writes the employees of the range ordered by id into the output stream, gzip-compressed, with the columns id, name and teamId.
+     *
+     * @param format       encoding of the rows
+     * @param range        ids of the exported employees
+     * @param outputStream stream to write into, it is flushed but not closed
+     */
+    public void exportEmployees(ExportFormat format, ExportRange range, OutputStream outputStream) throws IOException {
+        export(EMPLOYEES_QUERY, EMPLOYEE_COLUMNS, format, range, outputStream);
+    }
+
+    /**
+     * Writes the teams of the range ordered by id into the output stream, gzip-compressed, with the columns id, name and teamLeadId.
+     *
+     * @param format       encoding of the rows
+     * @param range        ids of the exported teams
+     * @param outputStream stream to write into, it is flushed but not closed
+     */
+    public void exportTeams(ExportFormat format, ExportRange range, OutputStream outputStream) throws IOException {
+        export(TEAMS_QUERY, TEAM_COLUMNS, format, range, outputStream);
+    }
+
+    private void export(String query, List<String> columns, ExportFormat format, ExportRange range, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+        RowEncoder encoder = format == ExportFormat.CSV ? new CsvEncoder(gzip, columns) : new NdjsonEncoder(gzip, columns);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(exportProperties.getFetchSize());
+                statement.setLong(1, range.getAfterId());
+                statement.setLong(2, range.getToId());
+                return statement;
+            }, (RowCallbackHandler) encoder::write);
+        } catch (UncheckedIOException e) {
+            // the client went away while rows were written
+            throw e.getCause();
+        }
+        encoder.finish();
+        gzip.finish();
+        outputStream.flush();
+    }
+
+    /**
+     * Encodes the rows of a result set, in the order of the columns.
+     */
+    private interface RowEncoder {
+
+        void write(ResultSet row) throws SQLException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvEncoder implements RowEncoder {
+
+        private final Writer writer;
+        private final int columnCount;
+
+        CsvEncoder(OutputStream outputStream, List<String> columns) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            columnCount = columns.size();
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException {
+            try {
+                for (int i = 1; i <= columnCount; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    Object value = row.getObject(i);
+                    if (value != null) {
+                        writer.write(CsvUtils.formatField(value.toString()));
+                    }
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class NdjsonEncoder implements RowEncoder {
+
+        private final JsonGenerator generator;
+        private final List<String> columns;
+
+        NdjsonEncoder(OutputStream outputStream, List<String> columns) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are separated by the written line breaks only
+            generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = row.getObject(i + 1);
+                    generator.writeFieldName(columns.get(i));
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof Number) {
+                        generator.writeNumber(((Number) value).longValue());
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.dto.EmployeeReportsDto;
+import com.example.employeeApplication.dto.ReportingCyclesDto;
+import com.example.employeeApplication.dto.ReportingLineDto;
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import com.example.employeeApplication.hierarchy.OrgHierarchy;
+import com.example.employeeApplication.hierarchy.OrgHierarchyIndex;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reporting-line queries answered from the in-memory OrgHierarchy, without a database round trip per level.
+ * Not transactional, the index keeps the hierarchy up to date itself, in its own transactions.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class HierarchyService {
+
+    private final OrgHierarchyIndex hierarchyIndex;
+
+    /**
+     * Returns the ids of everyone reporting to the employee, directly or through other leads. If employee not found, not found API exception will be thrown.
+     *
+     * @param id id of the employee
+     * @return ids of the reports, level by level and ordered by id within a level
+     */
+    public EmployeeReportsDto getReports(Long id) {
+        OrgHierarchy hierarchy = findHierarchyWith(id);
+        return EmployeeReportsDto.builder()
+                .employeeId(id)
+                .reportIds(hierarchy.getReports(id))
+                .build();
+    }
+
+    /**
+     * Returns the ids of the leads above the employee, up to the top of the org or around a lead cycle once.
+     * If employee not found, not found API exception will be thrown.
+     *
+     * @param id id of the employee
+     * @return ids of the leads, starting with the direct lead
+     */
+    public ReportingLineDto getReportingLine(Long id) {
+        OrgHierarchy.ReportingLine reportingLine = findHierarchyWith(id).getReportingLine(id);
+        return ReportingLineDto.builder()
+                .employeeId(id)
+                .leadIds(reportingLine.getLeadIds())
+                .cyclic(reportingLine.isCyclic())
+                .build();
+    }
+
+    /**
+     * Returns the lead cycles, where following the team leads up from an employee leads back to the same employee
+     *
+     * @return every cycle once, as the employee ids along it
+     */
+    public ReportingCyclesDto getCycles() {
+        return ReportingCyclesDto.builder()
+                .cycles(hierarchyIndex.getHierarchy().getCycles())
+                .build();
+    }
+
+    private OrgHierarchy findHierarchyWith(Long id) {
+        OrgHierarchy hierarchy = hierarchyIndex.getHierarchy();
+        if (!hierarchy.contains(id)) {
+            throw ApiExceptionFactory.notFound("Employee not found");
+        }
+        return hierarchy;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.dto.EmployeeMoveDto;
+import com.example.employeeApplication.dto.ReorgDto;
+import com.example.employeeApplication.dto.TeamLeadChangeDto;
+import com.example.employeeApplication.dto.TeamRenameDto;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.projection.EmployeeTeamProjection;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ReorgService {
+
+    /**
+     * Most employee moves in one reorg, so the ids of the request fit into the parameters of a single statement. The ids
+     * named in the OrgChangedEvent aren't bounded by it (the members of every changed team are added), their consumers chunk them.
+     */
+    public static final int MAX_MOVES = 10000;
+
+    /**
+     * Most team renames and lead changes (together) in one reorg
+     */
+    public static final int MAX_TEAM_CHANGES = 1000;
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Applies employee moves, team renames and team lead changes together, in one transaction: either all of them
+     * are made or none. All changes are validated first with one query per kind of row, and then applied with one
+     * statement per target team for the moves and batched updates for the teams, so the number of statements doesn't
+     * depend on the number of moved employees.
+     * If the reorg is empty, too big, or changes an employee or team twice, bad request API exception will be thrown.
+     * If some employees, team leads or teams do not exist, not found API exception will be thrown.
+     * If a new team name already belongs to a team keeping its name, or two teams get the same name, conflict API exception will be thrown.
+     * Team names are NOT case-sensitive, and two teams can swap their names in one reorg.
+     *
+     * @param reorg changes to make
+     * @return changes made, with the previous values; changes that didn't change anything are left out
+     */
+    public ReorgDto reorg(ReorgDto reorg) {
+        List<EmployeeMoveDto> moves = orEmpty(reorg.getMoves());
+        List<TeamRenameDto> renames = orEmpty(reorg.getRenames());
+        List<TeamLeadChangeDto> leadChanges = orEmpty(reorg.getLeadChanges());
+        checkRequest(moves, renames, leadChanges);
+
+        Map<Long, Long> teamIdsOfEmployees = findTeamIdsOfEmployees(moves, leadChanges);
+        Map<Long, TeamEntity> teams = findTeams(moves, renames, leadChanges);
+        checkNames(renames);
+
+        List<TeamRenameDto> renamed = new ArrayList<>();
+        for (TeamRenameDto rename : renames) {
+            TeamEntity team = teams.get(rename.getTeamId());
+            if (!rename.getName().equals(team.getName())) {
+                renamed.add(TeamRenameDto.builder().teamId(team.getId()).previousName(team.getName()).name(rename.getName()).build());
+                team.setName(rename.getName());
+            }
+        }
+        List<TeamLeadChangeDto> leadsChanged = new ArrayList<>();
+        for (TeamLeadChangeDto leadChange : leadChanges) {
+            TeamEntity team = teams.get(leadChange.getTeamId());
+            // the id of the lazy team lead is read from the foreign key, without loading the lead
+            Long previousLeadId = team.getTeamLead() != null ? team.getTeamLead().getId() : null;
+            if (!Objects.equals(previousLeadId, leadChange.getTeamLeadId())) {
+                leadsChanged.add(TeamLeadChangeDto.builder().teamId(team.getId()).previousTeamLeadId(previousLeadId).teamLeadId(leadChange.getTeamLeadId()).build());
+                team.setTeamLead(leadChange.getTeamLeadId() != null ? employeeRepository.getReferenceById(leadChange.getTeamLeadId()) : null);
+            }
+        }
+
+        OrgChangedEvent.OrgChangedEventBuilder changes = OrgChangedEvent.builder();
+        Set<Long> changedTeamIds = new HashSet<>();
+        renamed.forEach(x -> changedTeamIds.add(x.getTeamId()));
+        leadsChanged.forEach(x -> changedTeamIds.add(x.getTeamId()));
+        if (!changedTeamIds.isEmpty()) {
+            // the members of changed teams are changed too; the teams themselves are dirty, Hibernate increments their versions
+            changes.teamIds(changedTeamIds).versionedTeamIds(changedTeamIds).employeeIds(employeeRepository.findIdsByTeamIdIn(changedTeamIds));
+        }
+
+        List<EmployeeMoveDto> moved = new ArrayList<>();
+        // employee ids by the team they move to, the null team for employees leaving their team
+        Map<Long, List<Long>> movesByTeamId = new LinkedHashMap<>();
+        for (EmployeeMoveDto move : moves) {
+            Long fromTeamId = teamIdsOfEmployees.get(move.getEmployeeId());
+            if (!Objects.equals(fromTeamId, move.getTeamId())) {
+                moved.add(EmployeeMoveDto.builder().employeeId(move.getEmployeeId()).fromTeamId(fromTeamId).teamId(move.getTeamId()).build());
+                movesByTeamId.computeIfAbsent(move.getTeamId(), x -> new ArrayList<>()).add(move.getEmployeeId());
+                changes.employeeId(move.getEmployeeId()).teamId(fromTeamId).teamId(move.getTeamId());
+            }
+        }
+        // the team changes are flushed (as one batch) before the first move
+        movesByTeamId.forEach((teamId, employeeIds) -> {
+            if (teamId != null) {
+                employeeRepository.assignTeam(teams.get(teamId), employeeIds);
+            } else {
+                employeeRepository.unassignTeam(employeeIds);
+            }
+        });
+
+        if (!moved.isEmpty() || !changedTeamIds.isEmpty()) {
+            eventPublisher.publishEvent(changes.build());
+        }
+        return ReorgDto.builder()
+                .moves(moved)
+                .renames(renamed)
+                .leadChanges(leadsChanged)
+                .build();
+    }
+
+    private void checkRequest(List<EmployeeMoveDto> moves, List<TeamRenameDto> renames, List<TeamLeadChangeDto> leadChanges) {
+        if (moves.isEmpty() && renames.isEmpty() && leadChanges.isEmpty()) {
+            throw ApiExceptionFactory.badRequest("Reorg has no changes!");
+        }
+        if (moves.size() > MAX_MOVES) {
+            throw ApiExceptionFactory.badRequest("A reorg can move at most " + MAX_MOVES + " employees!");
+        }
+        if (renames.size() + leadChanges.size() > MAX_TEAM_CHANGES) {
+            throw ApiExceptionFactory.badRequest("A reorg can make at most " + MAX_TEAM_CHANGES + " team changes!");
+        }
+
+        Set<Long> movedIds = new HashSet<>();
+        for (EmployeeMoveDto move : moves) {
+            if (move == null || move.getEmployeeId() == null) {
+                throw ApiExceptionFactory.badRequest("Every move needs an employee id!");
+            }
+            if (!movedIds.add(move.getEmployeeId())) {
+                throw ApiExceptionFactory.badRequest("Employee " + move.getEmployeeId() + " is moved more than once!");
+            }
+        }
+        Set<Long> renamedIds = new HashSet<>();
+        for (TeamRenameDto rename : renames) {
+            if (rename == null || rename.getTeamId() == null) {
+                throw ApiExceptionFactory.badRequest("Every rename needs a team id!");
+            }
+            if (rename.getName() == null || rename.getName().isEmpty()) {
+                throw ApiExceptionFactory.badRequest("Team name is missing!");
+            }
+            if (rename.getName().length() > MAX_NAME_LENGTH) {
+                throw ApiExceptionFactory.badRequest("Team name is longer than " + MAX_NAME_LENGTH + " characters!");
+            }
+            if (!renamedIds.add(rename.getTeamId())) {
+                throw ApiExceptionFactory.badRequest("Team " + rename.getTeamId() + " is renamed more than once!");
+            }
+        }
+        Set<Long> leadChangeIds = new HashSet<>();
+        for (TeamLeadChangeDto leadChange : leadChanges) {
+            if (leadChange == null || leadChange.getTeamId() == null) {
+                throw ApiExceptionFactory.badRequest("Every lead change needs a team id!");
+            }
+            if (!leadChangeIds.add(leadChange.getTeamId())) {
+                throw ApiExceptionFactory.badRequest("Lead of team " + leadChange.getTeamId() + " is changed more than once!");
+            }
+        }
+    }
+
+    /**
+     * Reads the current team of the moved employees, and checks that they and the new team leads exist, with a single query
+     */
+    private Map<Long, Long> findTeamIdsOfEmployees(List<EmployeeMoveDto> moves, List<TeamLeadChangeDto> leadChanges) {
+        Set<Long> ids = new HashSet<>();
+        moves.forEach(x -> ids.add(x.getEmployeeId()));
+        leadChanges.stream().map(TeamLeadChangeDto::getTeamLeadId).filter(Objects::nonNull).forEach(ids::add);
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Long> teamIds = new HashMap<>();
+        for (EmployeeTeamProjection employee : employeeRepository.findAllTeamIdsByIdIn(ids)) {
+            teamIds.put(employee.getId(), employee.getTeamId());
+        }
+        if (teamIds.size() != ids.size()) {
+            throw ApiExceptionFactory.notFound("Some employees not found!");
+        }
+        return teamIds;
+    }
+
+    /**
+     * Loads the teams employees move to and the changed teams with a single query, checking that they all exist
+     */
+    private Map<Long, TeamEntity> findTeams(List<EmployeeMoveDto> moves, List<TeamRenameDto> renames, List<TeamLeadChangeDto> leadChanges) {
+        Set<Long> ids = new HashSet<>();
+        moves.stream().map(EmployeeMoveDto::getTeamId).filter(Objects::nonNull).forEach(ids::add);
+        renames.forEach(x -> ids.add(x.getTeamId()));
+        leadChanges.forEach(x -> ids.add(x.getTeamId()));
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, TeamEntity> teams = new HashMap<>();
+        teamRepository.findAllById(ids).forEach(x -> teams.put(x.getId(), x));
+        if (teams.size() != ids.size()) {
+            throw ApiExceptionFactory.notFound("Some teams not found!");
+        }
+        return teams;
+    }
+
+    /**
+     * Checks with a single query that no new name is taken by a team keeping its name, ignoring case
+     */
+    private void checkNames(List<TeamRenameDto> renames) {
+        if (renames.isEmpty()) {
+            return;
+        }
+        Map<String, Long> teamIdsByNewName = new HashMap<>();
+        Map<Long, String> newNamesByTeamId = new HashMap<>();
+        for (TeamRenameDto rename : renames) {
+            String name = rename.getName().toLowerCase();
+            if (teamIdsByNewName.put(name, rename.getTeamId()) != null) {
+                throw ApiExceptionFactory.conflict("Two teams can't be renamed to the same name!");
+            }
+            newNamesByTeamId.put(rename.getTeamId(), name);
+        }
+        for (TeamEntity existing : teamRepository.findAllByLowerCaseNameIn(teamIdsByNewName.keySet())) {
+            String name = existing.getName().toLowerCase();
+            boolean renamedToIt = existing.getId().equals(teamIdsByNewName.get(name));
+            boolean renamedAway = newNamesByTeamId.containsKey(existing.getId()) && !newNamesByTeamId.get(existing.getId()).equals(name);
+            if (!renamedToIt && !renamedAway) {
+                throw ApiExceptionFactory.conflict("Team with given name already exists!");
+            }
+        }
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+}
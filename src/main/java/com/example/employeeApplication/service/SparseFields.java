@@ -0,0 +1,74 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+
+import javax.persistence.Tuple;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsing of the fields and expand parameters of the list endpoints, and building of the sparse response rows.
+ */
+final class SparseFields {
+
+    /**
+     * Attributes of an employee or team that can be requested, also the attributes of expanded relations
+     */
+    static final List<String> ATTRIBUTES = Collections.unmodifiableList(Arrays.asList("id", "name"));
+
+    private SparseFields() {
+    }
+
+    /**
+     * Returns the requested names in the order of the allowed names. If a name is not allowed, bad request API exception will be thrown.
+     *
+     * @param requested names given in the parameter, null or empty for the defaults
+     * @param allowed   names that can be requested
+     * @param defaults  names used when none are requested
+     * @param parameter name of the parameter, for the error message
+     */
+    static Set<String> parse(List<String> requested, List<String> allowed, List<String> defaults, String parameter) {
+        if (requested == null || requested.isEmpty()) {
+            return new LinkedHashSet<>(defaults);
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : requested) {
+            String trimmed = name.trim();
+            if (!allowed.contains(trimmed)) {
+                throw ApiExceptionFactory.badRequest("Parameter " + parameter + " can only contain " + allowed + "!");
+            }
+            names.add(trimmed);
+        }
+        Set<String> ordered = new LinkedHashSet<>(allowed);
+        ordered.retainAll(names);
+        return ordered;
+    }
+
+    /**
+     * Returns the attributes of a tuple as a map, reading the elements aliased by the attribute name.
+     */
+    static Map<String, Object> row(Tuple tuple, Collection<String> attributes) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        attributes.forEach(x -> row.put(x, tuple.get(x)));
+        return row;
+    }
+
+    /**
+     * Returns the attributes of a left joined relation as a map, reading the elements aliased by the prefix and the attribute name.
+     * Returns null if the relation wasn't found (its id is null).
+     */
+    static Map<String, Object> relation(Tuple tuple, String aliasPrefix, Collection<String> attributes) {
+        if (tuple.get(aliasPrefix + "id") == null) {
+            return null;
+        }
+        Map<String, Object> relation = new LinkedHashMap<>();
+        attributes.forEach(x -> relation.put(x, tuple.get(aliasPrefix + x)));
+        return relation;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.configuration.StatisticsProperties;
+import com.example.employeeApplication.dto.OrgStatisticsDto;
+import com.example.employeeApplication.dto.TeamSizeDto;
+import com.example.employeeApplication.exception.ApiExceptionFactory;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.projection.EmployeeCountsProjection;
+import com.example.employeeApplication.repository.projection.TeamCountsProjection;
+import com.example.employeeApplication.repository.projection.TeamSizeProjection;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Org-wide statistics computed with aggregate queries. The last result is kept and returned until it is older than
+ * the allowed staleness, so the queries run at most once per staleness period. Serving a kept result doesn't touch the
+ * database, which is why this service is not transactional, the queries run in their own transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class StatisticsService {
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final StatisticsProperties statisticsProperties;
+
+    private volatile OrgStatisticsDto statistics;
+
+    /**
+     * Returns the org statistics, computed at most the allowed staleness ago. If the requested staleness is negative,
+     * bad request API exception will be thrown.
+     *
+     * @param maxStaleness how old the statistics can be, null for the configured staleness. Can only lower the configured staleness,
+     *                     and not below the configured minimum staleness.
+     * @return org statistics
+     */
+    public OrgStatisticsDto getStatistics(Duration maxStaleness) {
+        if (maxStaleness != null && maxStaleness.isNegative()) {
+            throw ApiExceptionFactory.badRequest("Staleness must not be negative!");
+        }
+        Duration staleness = maxStaleness != null && maxStaleness.compareTo(statisticsProperties.getMaxStaleness()) < 0
+                ? maxStaleness : statisticsProperties.getMaxStaleness();
+        if (staleness.compareTo(statisticsProperties.getMinStaleness()) < 0) {
+            staleness = statisticsProperties.getMinStaleness();
+        }
+        OrgStatisticsDto current = statistics;
+        if (isFresh(current, staleness)) {
+            return current;
+        }
+        synchronized (this) {
+            // another request may have recomputed the statistics while this one waited
+            current = statistics;
+            if (isFresh(current, staleness)) {
+                return current;
+            }
+            // one read-only repeatable read transaction, so all counts are taken from the same snapshot, on the replica
+            // if configured; at read committed every query could see a later commit
+            DefaultTransactionDefinition readOnly = new DefaultTransactionDefinition();
+            readOnly.setReadOnly(true);
+            readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            current = new TransactionTemplate(transactionManager, readOnly).execute(status -> computeStatistics());
+            statistics = current;
+            return current;
+        }
+    }
+
+    private boolean isFresh(OrgStatisticsDto current, Duration staleness) {
+        return current != null && current.getComputedAt().plus(staleness).isAfter(Instant.now());
+    }
+
+    private OrgStatisticsDto computeStatistics() {
+        Instant computedAt = Instant.now();
+        EmployeeCountsProjection employees = employeeRepository.countEmployees();
+        TeamCountsProjection teams = teamRepository.countTeams();
+        List<TeamSizeDto> largestTeams = new ArrayList<>();
+        for (TeamSizeProjection team : teamRepository.findLargestTeams(PageRequest.of(0, statisticsProperties.getLargestTeams()))) {
+            largestTeams.add(new TeamSizeDto(team.getId(), team.getName(), team.getSize()));
+        }
+        return OrgStatisticsDto.builder()
+                .employeeCount(employees.getEmployeeCount())
+                .unassignedEmployeeCount(employees.getEmployeeCount() - employees.getAssignedCount())
+                .teamCount(teams.getTeamCount())
+                .averageTeamSize(teams.getTeamCount() > 0 ? (double) employees.getAssignedCount() / teams.getTeamCount() : 0)
+                .teamsWithLeadCount(teams.getTeamsWithLeadCount())
+                .teamsWithoutLeadCount(teams.getTeamCount() - teams.getTeamsWithLeadCount())
+                .teamLeadCount(teams.getTeamLeadCount())
+                .largestTeams(largestTeams)
+                .computedAt(computedAt)
+                .build();
+    }
+}
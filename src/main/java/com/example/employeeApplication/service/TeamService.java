@@ -1,47 +1,210 @@
 package com.example.employeeApplication.service;
 
+import com.example.employeeApplication.coalescing.Coalesced;
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.dto.BatchItemDto;
 import com.example.employeeApplication.dto.TeamCreateDto;
 import com.example.employeeApplication.dto.TeamDto;
 import com.example.employeeApplication.entity.EmployeeEntity;
 import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.event.OrgChangedEvent;
 import com.example.employeeApplication.exception.ApiExceptionFactory;
 import com.example.employeeApplication.repository.EmployeeRepository;
 import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.TeamRepositoryCustom;
+import com.example.employeeApplication.repository.TeamRosterRepository;
+import com.example.employeeApplication.repository.projection.TeamMemberProjection;
+import com.example.employeeApplication.repository.projection.TeamRosterProjection;
+import com.example.employeeApplication.roster.TeamRosterProjector;
 import com.example.employeeApplication.utils.ModelMapperUtils;
+import com.example.employeeApplication.versioning.ChangeToken;
+import com.example.employeeApplication.versioning.Versioned;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.Tuple;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class TeamService {
 
+    public static final List<String> TEAM_EXPANSIONS = Collections.unmodifiableList(Arrays.asList("teamLead", "employees"));
+
     private final TeamRepository teamRepository;
     private final EmployeeRepository employeeRepository;
+    private final TeamRosterRepository teamRosterRepository;
+    private final TeamRosterProjector teamRosterProjector;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Returns all teams as a JSON array of team dtos, assembled from the materialized rosters without loading any employee.
+     *
+     * @return JSON array of all existing teams, ordered by id
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
+    public byte[] getAllTeamsJson() {
+        List<TeamRosterProjection> rosters = teamRosterRepository.findAllRosters();
+        Map<Long, byte[]> built = rebuildMissingRosters(rosters);
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write('[');
+        boolean first = true;
+        for (TeamRosterProjection team : rosters) {
+            byte[] roster = team.getRoster() != null ? team.getRoster() : built.get(team.getTeamId());
+            if (roster == null) {
+                // deleted since the rosters were read
+                continue;
+            }
+            if (!first) {
+                json.write(',');
+            }
+            json.write(roster, 0, roster.length);
+            first = false;
+        }
+        json.write(']');
+        return json.toByteArray();
+    }
 
     /**
-     * Returns all team dtos.
+     * Returns the requested attributes of all teams ordered by id. Only the columns of the requested attributes are selected,
+     * the team lead is joined only if expanded, and employees (their ids and names) are read with one more query only if expanded.
+     * If a field or expansion other than the allowed ones is given, bad request API exception will be thrown.
      *
-     * @return all existing team dtos
+     * @param fields attributes of the teams, any of id and name, null or empty for all
+     * @param expand relations to include, any of teamLead and employees, null or empty for none
+     * @return all teams, each a map of the requested attributes
      */
-    public List<TeamDto> getAllTeams() {
-        return ModelMapperUtils.mapTeamEntityList(teamRepository.findAll());
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllTeamsFields(List<String> fields, List<String> expand) {
+        Set<String> attributes = SparseFields.parse(fields, SparseFields.ATTRIBUTES, SparseFields.ATTRIBUTES, "fields");
+        Set<String> expansions = SparseFields.parse(expand, TEAM_EXPANSIONS, Collections.emptyList(), "expand");
+        boolean withTeamLead = expansions.contains("teamLead");
+        boolean withEmployees = expansions.contains("employees");
+
+        Set<String> selected = new LinkedHashSet<>(attributes);
+        Map<Long, List<Map<String, Object>>> employeesByTeam = new HashMap<>();
+        if (withEmployees) {
+            // team ids are needed to attach the employees, even if not requested
+            selected.add("id");
+            for (TeamMemberProjection member : employeeRepository.findAllTeamMembers()) {
+                Map<String, Object> employee = new LinkedHashMap<>();
+                employee.put("id", member.getId());
+                employee.put("name", member.getName());
+                employeesByTeam.computeIfAbsent(member.getTeamId(), x -> new ArrayList<>()).add(employee);
+            }
+        }
+        List<Tuple> teams = teamRepository.findAllAttributes(selected, withTeamLead ? SparseFields.ATTRIBUTES : Collections.emptyList());
+
+        List<Map<String, Object>> rows = new ArrayList<>(teams.size());
+        for (Tuple team : teams) {
+            Map<String, Object> row = SparseFields.row(team, attributes);
+            if (withTeamLead) {
+                row.put("teamLead", SparseFields.relation(team, TeamRepositoryCustom.TEAM_LEAD_ALIAS_PREFIX, SparseFields.ATTRIBUTES));
+            }
+            if (withEmployees) {
+                row.put("employees", employeesByTeam.getOrDefault(team.get("id", Long.class), Collections.emptyList()));
+            }
+            rows.add(row);
+        }
+        return rows;
     }
 
     /**
-     * Returns a team dto based on team id parameter. If team not found, not found API exception will be thrown.
+     * Returns a team as JSON of the team dto, read from its materialized roster. If team not found, not found API exception will be thrown.
      *
      * @param id id of the team
-     * @return found team dto
+     * @return JSON of the found team
+     */
+    @Coalesced
+    @Transactional(readOnly = true)
+    public byte[] getTeamJsonById(Long id) {
+        Optional<byte[]> roster = teamRosterRepository.findRosterByTeamId(id);
+        if (roster.isPresent()) {
+            return roster.get();
+        }
+        // team inserted without an OrgChangedEvent, or not existing
+        byte[] built = teamRosterProjector.build(Collections.singleton(id)).get(id);
+        if (built == null) {
+            throw ApiExceptionFactory.notFound("Team not found");
+        }
+        return built;
+    }
+
+    /**
+     * Returns teams for a list of ids as JSON of the team dtos, read from the materialized rosters in a single query,
+     * in the order of the ids. Ids without a team are marked as not found.
+     * If no ids or more than 1000 ids are given, bad request API exception will be thrown.
+     *
+     * @param ids ids of the teams, can repeat
+     * @return one item per requested id
+     */
+    @Transactional(readOnly = true)
+    public List<BatchItemDto<RawValue>> getTeamsJsonByIds(List<Long> ids) {
+        Set<Long> distinctIds = BatchLookup.distinctIds(ids);
+        List<TeamRosterProjection> rosters = teamRosterRepository.findAllRostersByTeamIdIn(distinctIds);
+        Map<Long, byte[]> built = rebuildMissingRosters(rosters);
+        Map<Long, RawValue> found = new HashMap<>();
+        for (TeamRosterProjection team : rosters) {
+            byte[] roster = team.getRoster() != null ? team.getRoster() : built.get(team.getTeamId());
+            if (roster != null) {
+                found.put(team.getTeamId(), new RawValue(new String(roster, StandardCharsets.UTF_8)));
+            }
+        }
+        return BatchLookup.inRequestOrder(ids, found);
+    }
+
+    /**
+     * Builds the rosters of teams inserted without an OrgChangedEvent, in the read-only transaction of the request.
+     * They aren't stored: that is left to the changes and the startup backfill, so reads never write.
+     *
+     * @param rosters rosters read for a request, null for teams without one
+     * @return built rosters by team id
      */
-    public TeamDto getTeamById(Long id) {
-        return ModelMapperUtils.mapTeamEntity(teamRepository.findById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Team not found")));
+    private Map<Long, byte[]> rebuildMissingRosters(List<TeamRosterProjection> rosters) {
+        List<Long> missingIds = rosters.stream().filter(x -> x.getRoster() == null).map(TeamRosterProjection::getTeamId).collect(Collectors.toList());
+        return missingIds.isEmpty() ? Collections.emptyMap() : teamRosterProjector.build(missingIds);
+    }
+
+    /**
+     * Returns the change token of the team list, read from the version columns only.
+     *
+     * @return change token of all teams
+     */
+    @Transactional(readOnly = true)
+    public ChangeToken getTeamsChangeToken() {
+        return ChangeToken.of(teamRepository.summarizeVersions());
+    }
+
+    /**
+     * Returns the change token of a team, read from its version columns only. If team not found, not found API exception will be thrown.
+     *
+     * @param id id of the team
+     * @return change token of the team
+     */
+    @Transactional(readOnly = true)
+    public ChangeToken getTeamChangeToken(Long id) {
+        return ChangeToken.of(teamRepository.findVersionById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Team not found")));
     }
 
     /**
@@ -53,18 +216,8 @@ public class TeamService {
      * @return returns the newly created team dto
      */
     public TeamDto createTeam(TeamCreateDto teamCreateDto) {
-        EmployeeEntity teamLead = null;
-        Set<EmployeeEntity> employeesInTeam = new HashSet<>();
-        if (teamCreateDto.getTeamLeadId() != null) {
-            teamLead = employeeRepository.findById(teamCreateDto.getTeamLeadId()).orElseThrow(() -> ApiExceptionFactory.notFound("Team lead not found!"));
-        }
-        if (teamCreateDto.getEmployeeIds() != null && !teamCreateDto.getEmployeeIds().isEmpty()) {
-            employeesInTeam = new HashSet<>(employeeRepository.findAllById(teamCreateDto.getEmployeeIds()));
-            // if sizes differ, not all employees exist in the db
-            if (employeesInTeam.size() != teamCreateDto.getEmployeeIds().size()) {
-                throw ApiExceptionFactory.notFound("Some employees not found!");
-            }
-        }
+        EmployeeEntity teamLead = findTeamLead(teamCreateDto.getTeamLeadId());
+        Set<Long> employeeIds = checkEmployeesExist(teamCreateDto.getEmployeeIds());
         Optional<TeamEntity> existingName = teamRepository.findAllByNameEqualsIgnoreCase(teamCreateDto.getName());
         if (existingName.isPresent()) {
             throw ApiExceptionFactory.conflict("Team with given name already exists!");
@@ -73,30 +226,38 @@ public class TeamService {
         TeamEntity toSave = TeamEntity.builder()
                 .teamLead(teamLead)
                 .name(teamCreateDto.getName())
-                .employeesInTeam(employeesInTeam)
                 .build();
 
         TeamEntity saved = teamRepository.save(toSave);
+        OrgChangedEvent.OrgChangedEventBuilder changes = OrgChangedEvent.builder().teamId(saved.getId()).createdTeamId(saved.getId());
 
-        //switching employees to new team
-        employeesInTeam.forEach(x -> x.setTeam(saved));
-        employeeRepository.saveAll(employeesInTeam);
-        return ModelMapperUtils.mapTeamEntity(saved);
+        //switching employees to new team, the teams they leave are changed too
+        if (!employeeIds.isEmpty()) {
+            changes.employeeIds(employeeIds).teamIds(employeeRepository.findTeamIdsByIdIn(employeeIds));
+            employeeRepository.assignTeam(saved, employeeIds);
+        }
+        eventPublisher.publishEvent(changes.build());
+        return getTeamRoster(saved.getId());
     }
 
     /**
      * Updates a team based on TeamCreateDto, and based on the id param. If the team cannot be found with given id, not found API exception will be thrown.
      * If team lead and/or employees are filled, but do not exist, not found API exception will be thrown.
      * Also, if the team name already exists in some other team, conflict API exception will be thrown. Team name is NOT case-sensitive.
-     * Team can be saved without employees and/or team lead.
+     * Team can be saved without employees and/or team lead. Employees not in the new employee list are removed from the team.
+     * If the expected version is given and the team has a different version, precondition failed API exception will be thrown.
      *
-     * @param updateTeamDto data for updating the team
-     * @param id            id of the team to be updated
-     * @return returns the updated team dto
+     * @param updateTeamDto   data for updating the team
+     * @param id              id of the team to be updated
+     * @param expectedVersion version the client based the update on (from If-Match), null to skip the check
+     * @return returns the updated team dto with its new change token
      */
-    public TeamDto updateTeam(Long id, TeamCreateDto updateTeamDto) {
+    public Versioned<TeamDto> updateTeam(Long id, TeamCreateDto updateTeamDto, Long expectedVersion) {
         // checking if updating an existing team
         TeamEntity teamEntity = teamRepository.findById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Team with given ID doesn't exist!"));
+        if (expectedVersion != null && !expectedVersion.equals(teamEntity.getVersion())) {
+            throw ApiExceptionFactory.preconditionFailed("Team was changed in the meantime!");
+        }
 
         // checking if new name already exists
         Optional<TeamEntity> existingName = teamRepository.findAllByNameEqualsIgnoreCase(updateTeamDto.getName());
@@ -104,51 +265,96 @@ public class TeamService {
             throw ApiExceptionFactory.conflict("Team with given name already exists!");
         }
 
-        // checking if team lead changed
-        if (updateTeamDto.getTeamLeadId() != null) {
-            teamEntity.setTeamLead(employeeRepository.findById(updateTeamDto.getTeamLeadId()).orElseThrow(() -> ApiExceptionFactory.notFound("Team lead not found!")));
-        } else {
-            teamEntity.setTeamLead(null);
-        }
-        Set<EmployeeEntity> employeesInTeam = new HashSet<>();
-        if (updateTeamDto.getEmployeeIds() != null && !updateTeamDto.getEmployeeIds().isEmpty()) {
-            employeesInTeam = new HashSet<>(employeeRepository.findAllById(updateTeamDto.getEmployeeIds()));
-            TeamEntity finalTeamEntity = teamEntity;
-            employeesInTeam.forEach(x -> x.setTeam(finalTeamEntity));
-            // if sizes differ, not all employees exist in the db
-            if (employeesInTeam.size() != updateTeamDto.getEmployeeIds().size()) {
-                throw ApiExceptionFactory.notFound("Some employees not found!");
-            }
-        } else {
-            // else: the updated team doesn't have any employees, removing all people from the team
-            teamEntity.getEmployeesInTeam().forEach(x -> x.setTeam(null));
-        }
-        teamEntity.setEmployeesInTeam(employeesInTeam);
-        employeeRepository.saveAll(teamEntity.getEmployeesInTeam());
+        teamEntity.setTeamLead(findTeamLead(updateTeamDto.getTeamLeadId()));
+        Set<Long> employeeIds = checkEmployeesExist(updateTeamDto.getEmployeeIds());
+
+        OrgChangedEvent.OrgChangedEventBuilder changes = OrgChangedEvent.builder().teamId(id);
+        // all current employees are changed, they either stay in the team (which changed) or leave it
+        changes.employeeIds(employeeRepository.findIdsByTeamId(id));
 
         // updating the team name if it is not empty
         if (updateTeamDto.getName() != null && !updateTeamDto.getName().isEmpty()) {
             teamEntity.setName(updateTeamDto.getName());
         }
-        teamEntity = teamRepository.save(teamEntity);
-        return ModelMapperUtils.mapTeamEntity(teamEntity);
+        // every update changes a column, so Hibernate increments the version once, and the new version is known here
+        teamEntity.setLastModified(Instant.now());
+        teamEntity = teamRepository.saveAndFlush(teamEntity);
+        ChangeToken changeToken = ChangeToken.of(teamEntity.getVersion(), teamEntity.getLastModified());
+        changes.versionedTeamId(id);
+
+        if (employeeIds.isEmpty()) {
+            // the updated team doesn't have any employees, removing all people from the team
+            employeeRepository.removeAllFromTeam(teamEntity);
+        } else {
+            changes.employeeIds(employeeIds).teamIds(employeeRepository.findTeamIdsByIdIn(employeeIds));
+            employeeRepository.removeFromTeamExcept(teamEntity, employeeIds);
+            employeeRepository.assignTeam(teamEntity, employeeIds);
+        }
+        eventPublisher.publishEvent(changes.build());
+        return Versioned.of(changeToken, getTeamRoster(id));
     }
 
     /**
-     * Deletes a team based on team id. If the team cannot be found with given id, not found API exception will be thrown.
+     * Deletes a team based on team id. If the team cannot be found with given id, not found API exception will be thrown,
+     * if it was changed after it was loaded, precondition failed API exception will be thrown.
      *
      * @param id id of the team to be deleted
      * @return the deleted team
      */
     public TeamDto deleteTeam(Long id) {
         // checking if team exists
-        TeamEntity teamEntity = teamRepository.findById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Team with given ID doesn't exist!"));
+        TeamEntity teamEntity = teamRepository.findWithRosterById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Team with given ID doesn't exist!"));
+        TeamDto deleted = ModelMapperUtils.mapTeamEntity(teamEntity);
+
+        OrgChangedEvent.OrgChangedEventBuilder changes = OrgChangedEvent.builder().teamId(id);
+        teamEntity.getEmployeesInTeam().forEach(x -> changes.employeeId(x.getId()));
 
         // updating the employees
-        teamEntity.getEmployeesInTeam().forEach(x -> x.setTeam(null));
-        employeeRepository.saveAll(teamEntity.getEmployeesInTeam());
+        employeeRepository.removeAllFromTeam(teamEntity);
+        // deleting the loaded version only, so a concurrent update isn't silently overwritten by the delete
+        if (teamRepository.deleteByIdAndVersion(id, teamEntity.getVersion()) == 0) {
+            throw ApiExceptionFactory.preconditionFailed("Team was changed in the meantime!");
+        }
+        eventPublisher.publishEvent(changes.build());
+        return deleted;
+    }
+
+    /**
+     * Returns a reference to the team lead, checking only that the employee exists. If the employee does not exist,
+     * not found API exception will be thrown.
+     *
+     * @param teamLeadId id of the team lead, can be null
+     * @return team lead reference, or null if no team lead id is given
+     */
+    private EmployeeEntity findTeamLead(Long teamLeadId) {
+        if (teamLeadId == null) {
+            return null;
+        }
+        if (!employeeRepository.existsById(teamLeadId)) {
+            throw ApiExceptionFactory.notFound("Team lead not found!");
+        }
+        return employeeRepository.getReferenceById(teamLeadId);
+    }
+
+    /**
+     * Checks with a single count query that all employees exist. If some do not exist, not found API exception will be thrown.
+     *
+     * @param employeeIds ids of the employees, can be null
+     * @return distinct employee ids, empty if none are given
+     */
+    private Set<Long> checkEmployeesExist(List<Long> employeeIds) {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> distinctIds = new HashSet<>(employeeIds);
+        // if counts differ, not all employees exist in the db
+        if (employeeRepository.countByIdIn(distinctIds) != distinctIds.size()) {
+            throw ApiExceptionFactory.notFound("Some employees not found!");
+        }
+        return distinctIds;
+    }
 
-        teamRepository.delete(teamEntity);
-        return ModelMapperUtils.mapTeamEntity(teamEntity);
+    private TeamDto getTeamRoster(Long id) {
+        return ModelMapperUtils.mapTeamEntity(teamRepository.findWithRosterById(id).orElseThrow(() -> ApiExceptionFactory.notFound("Team not found")));
     }
 }
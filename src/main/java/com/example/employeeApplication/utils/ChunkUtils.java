@@ -0,0 +1,34 @@
+package com.example.employeeApplication.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ChunkUtils {
+
+    /**
+     * Most ids bound into one IN list. An event can name any number of ids (an import names every imported employee),
+     * while PostgreSQL accepts at most 32767 bind parameters per statement.
+     */
+    public static final int MAX_IN_LIST_SIZE = 1000;
+
+    /**
+     * Splits the items into consecutive lists of at most the given size, in iteration order.
+     *
+     * @param items items to split
+     * @param size  most items per list
+     * @return the lists, empty if there are no items
+     */
+    public static <T> List<List<T>> chunks(Collection<T> items, int size) {
+        List<T> all = new ArrayList<>(items);
+        List<List<T>> chunks = new ArrayList<>((all.size() + size - 1) / size);
+        for (int from = 0; from < all.size(); from += size) {
+            chunks.add(all.subList(from, Math.min(from + size, all.size())));
+        }
+        return chunks;
+    }
+}
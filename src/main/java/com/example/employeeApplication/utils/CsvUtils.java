@@ -0,0 +1,62 @@
+package com.example.employeeApplication.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CsvUtils {
+
+    /**
+     * Splits one CSV line into fields. Fields can be quoted with double quotes, and a double quote inside a quoted field
+     * is written as two double quotes. Line breaks inside quoted fields are not supported.
+     *
+     * @param line CSV line without the line terminator
+     * @return fields of the line, or null if a quoted field isn't closed
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Formats one CSV field, the reverse of parseLine. Fields containing a comma, a double quote or a line break are quoted.
+     *
+     * @param field value of the field
+     * @return the field as written into a CSV line
+     */
+    public static String formatField(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,82 +1,122 @@
 package com.example.employeeApplication.utils;
 
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
 import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.OrgChangeDto;
 import com.example.employeeApplication.dto.TeamDto;
 import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.OrgChangeEntity;
 import com.example.employeeApplication.entity.TeamEntity;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
-import org.modelmapper.spi.MatchingStrategy;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
+/**
+ * Hand-written mappings between entities and dtos. Mapping is done with plain getters and setters (no reflection),
+ * and list mappings allocate presized lists and share the nested team dtos instead of creating one per employee.
+ * The list and roster mappings are timed as app.mapper.
+ */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ModelMapperUtils {
 
-    private static final ModelMapper modelMapper;
-    private static final MatchingStrategy defaultMatchingStrategy = MatchingStrategies.STRICT;
+    private static final Timer EMPLOYEE_LIST_TIMER = mapperTimer("mapEmployeeEntityList");
+    private static final Timer TEAM_TIMER = mapperTimer("mapTeamEntity");
+    private static final Timer TEAM_LIST_TIMER = mapperTimer("mapTeamEntityList");
 
-    static {
-        modelMapper = new ModelMapper();
-        modelMapper.getConfiguration().setMatchingStrategy(defaultMatchingStrategy);
+    /**
+     * Maps employeeCreateDto into a new employeeEntity. The team is not mapped, it has to be looked up and set by the caller.
+     *
+     * @param employeeCreateDto source
+     * @return mapped employeeEntity
+     */
+    public static EmployeeEntity mapEmployeeCreateDto(EmployeeCreateDto employeeCreateDto) {
+        EmployeeEntity employeeEntity = new EmployeeEntity();
+        employeeEntity.setName(employeeCreateDto.getName());
+        return employeeEntity;
     }
 
-
     /**
-     * Maps entity into an object
+     * Maps list of employeeEntities into a list of employeeDtos. Employees from the same team share one team dto.
      *
-     * @param entity   source
-     * @param outClass destination
-     * @return mapped object
+     * @param entities source
+     * @return mapped list of employeeDtos
      */
-    public static <D, T> D map(final T entity, Class<D> outClass) {
-        return modelMapper.map(entity, outClass);
+    public static List<EmployeeDto> mapEmployeeEntityList(List<EmployeeEntity> entities) {
+        return EMPLOYEE_LIST_TIMER.record(() -> mapEmployeeEntityListUntimed(entities));
     }
 
-
-    public static List<EmployeeDto> mapEmployeeEntityList(List<EmployeeEntity> entities) {
-        return entities.stream().map(ModelMapperUtils::mapEmployeeEntity).collect(Collectors.toList());
+    private static List<EmployeeDto> mapEmployeeEntityListUntimed(List<EmployeeEntity> entities) {
+        List<EmployeeDto> employeeDtos = new ArrayList<>(entities.size());
+        Map<Long, TeamDto> teamDtos = new HashMap<>();
+        for (EmployeeEntity employeeEntity : entities) {
+            TeamDto teamDto = null;
+            if (employeeEntity.getTeam() != null) {
+                teamDto = teamDtos.computeIfAbsent(employeeEntity.getTeam().getId(), id -> mapTeamEntityShallow(employeeEntity.getTeam()));
+            }
+            employeeDtos.add(mapEmployeeEntity(employeeEntity, teamDto));
+        }
+        return employeeDtos;
     }
 
     /**
-     * Maps employeeEntity into employeeDto
+     * Maps employeeEntity into employeeDto. The team is mapped without its team lead and employees,
+     * so only the team itself has to be fetched together with the employee.
      *
      * @param employeeEntity source
      * @return mapped employeeDto
      */
     public static EmployeeDto mapEmployeeEntity(EmployeeEntity employeeEntity) {
-        EmployeeDto employeeDto = EmployeeDto.builder()
-                .id(employeeEntity.getId())
-                .name(employeeEntity.getName())
-                .build();
-        if (employeeEntity.getTeam() != null) {
-            employeeDto.setTeam(ModelMapperUtils.map(employeeEntity.getTeam(), TeamDto.class));
-        }
-        return employeeDto;
+        return mapEmployeeEntity(employeeEntity, employeeEntity.getTeam() != null ? mapTeamEntityShallow(employeeEntity.getTeam()) : null);
+    }
+
+    /**
+     * Maps employeeEntity into employeeDto, using the given team dto as the employee's team instead of mapping the team.
+     *
+     * @param employeeEntity source
+     * @param teamDto        already mapped team of the employee, can be null
+     * @return mapped employeeDto
+     */
+    public static EmployeeDto mapEmployeeEntity(EmployeeEntity employeeEntity, TeamDto teamDto) {
+        return new EmployeeDto(employeeEntity.getId(), employeeEntity.getName(), teamDto);
     }
 
+    private static TeamDto mapTeamEntityShallow(TeamEntity teamEntity) {
+        TeamDto teamDto = new TeamDto();
+        teamDto.setId(teamEntity.getId());
+        teamDto.setName(teamEntity.getName());
+        return teamDto;
+    }
 
     /**
-     * Maps teamEntity into teamDto
+     * Maps teamEntity into teamDto. Employees of the team reference the returned team dto as their team.
      *
      * @param teamEntity source
      * @return mapped teamDto
      */
     public static TeamDto mapTeamEntity(TeamEntity teamEntity) {
-        TeamDto teamDto = TeamDto.builder()
-                .name(teamEntity.getName())
-                .id(teamEntity.getId())
-                .build();
+        return TEAM_TIMER.record(() -> mapTeamEntityUntimed(teamEntity));
+    }
+
+    private static TeamDto mapTeamEntityUntimed(TeamEntity teamEntity) {
+        TeamDto teamDto = mapTeamEntityShallow(teamEntity);
 
         if (teamEntity.getEmployeesInTeam() != null) {
-            teamDto.setEmployees(mapEmployeeEntityList(new LinkedList<>(teamEntity.getEmployeesInTeam())));
+            List<EmployeeDto> employees = new ArrayList<>(teamEntity.getEmployeesInTeam().size());
+            for (EmployeeEntity employeeEntity : teamEntity.getEmployeesInTeam()) {
+                employees.add(mapEmployeeEntity(employeeEntity, teamDto));
+            }
+            teamDto.setEmployees(employees);
         }
         if (teamEntity.getTeamLead() != null) {
-            teamDto.setTeamLead(ModelMapperUtils.map(teamEntity.getTeamLead(), EmployeeDto.class));
+            // team lead is mapped without its own team, which isn't fetched together with this team
+            teamDto.setTeamLead(mapEmployeeEntity(teamEntity.getTeamLead(), null));
         }
         return teamDto;
     }
@@ -88,6 +128,30 @@ public class ModelMapperUtils {
      * @return mapped list of teamDtos
      */
     public static List<TeamDto> mapTeamEntityList(List<TeamEntity> entities) {
-        return entities.stream().map(ModelMapperUtils::mapTeamEntity).collect(Collectors.toList());
+        return TEAM_LIST_TIMER.record(() -> {
+            List<TeamDto> teamDtos = new ArrayList<>(entities.size());
+            for (TeamEntity teamEntity : entities) {
+                teamDtos.add(mapTeamEntityUntimed(teamEntity));
+            }
+            return teamDtos;
+        });
+    }
+
+    /**
+     * Maps orgChangeEntity into orgChangeDto.
+     *
+     * @param orgChangeEntity source
+     * @return mapped orgChangeDto
+     */
+    public static OrgChangeDto mapOrgChangeEntity(OrgChangeEntity orgChangeEntity) {
+        return new OrgChangeDto(orgChangeEntity.getId(), orgChangeEntity.getEntityType(), orgChangeEntity.getEntityId(), orgChangeEntity.getChangedAt());
+    }
+
+    // registered in the global registry, which Spring Boot adds its meter registry to
+    private static Timer mapperTimer(String method) {
+        return Timer.builder(MetricsConfig.MAPPER_TIMER)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.99)
+                .register(Metrics.globalRegistry);
     }
 }
@@ -0,0 +1,98 @@
+package com.example.employeeApplication.versioning;
+
+import com.example.employeeApplication.repository.projection.VersionProjection;
+import com.example.employeeApplication.repository.projection.VersionSummaryProjection;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+
+/**
+ * Validators of a resource for conditional requests: a weak ETag and, for single rows, the last modification time.
+ * Computed from version columns only, so a request can be answered with 304 without loading or mapping any entity.
+ */
+@Getter
+public class ChangeToken {
+
+    /**
+     * Last modification time of resources that don't have one, as expected by WebRequest.checkNotModified
+     */
+    public static final long NO_LAST_MODIFIED = -1;
+
+    private final String etag;
+    private final long lastModified;
+
+    private ChangeToken(String etag, long lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Token of a single row. The ETag is the row version, which is also what If-Match is checked against.
+     */
+    public static ChangeToken of(VersionProjection version) {
+        return of(version.getVersion(), version.getLastModified());
+    }
+
+    /**
+     * Token of a single row, from the version columns of a loaded entity.
+     */
+    public static ChangeToken of(Long version, Instant lastModified) {
+        return new ChangeToken(etagOf(version), lastModified.toEpochMilli());
+    }
+
+    /**
+     * Token of a whole table. It has no last modification time, because deleting a row doesn't leave one behind.
+     */
+    public static ChangeToken of(VersionSummaryProjection summary) {
+        long versionSum = summary.getVersionSum() != null ? summary.getVersionSum() : 0;
+        long lastModified = summary.getLastModified() != null ? summary.getLastModified().toEpochMilli() : 0;
+        return new ChangeToken("W/\"" + summary.getCount() + "-" + versionSum + "-" + lastModified + "\"", NO_LAST_MODIFIED);
+    }
+
+    /**
+     * Returns the row version from an If-Match header sent with an update.
+     *
+     * @param ifMatch value of the If-Match header, can be null
+     * @return expected row version, null if any version is accepted (no header or *), or -1 if the header can't match any version
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Returns a 200 response with the body and the ETag and Last-Modified headers of this token.
+     */
+    public <T> ResponseEntity<T> ok(T body) {
+        return ok().body(body);
+    }
+
+    /**
+     * Returns a builder of a 200 response with the ETag and Last-Modified headers of this token.
+     */
+    public ResponseEntity.BodyBuilder ok() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (lastModified != NO_LAST_MODIFIED) {
+            response.lastModified(lastModified);
+        }
+        return response;
+    }
+
+    private static String etagOf(Long version) {
+        return "W/\"" + version + "\"";
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.employeeApplication.versioning;
+
+import com.example.employeeApplication.event.OrgChangedEvent;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.utils.ChunkUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bumps the version and last modification time of every employee and team whose dto changed, in the same transaction
+ * as the change. This covers the rows changed through bulk statements and through related rows (e.g. a team whose member
+ * was renamed), which Hibernate's own versioning doesn't see, so ETags and Last-Modified headers change with every dto.
+ * Rows inserted by the change are skipped, nobody has seen an earlier version of them, and so are rows Hibernate
+ * already versioned, so a change advances every version by one. The ids are updated in chunks, so an import of any
+ * size stays within the bind parameter limit.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrgVersionListener {
+
+    private final EmployeeRepository employeeRepository;
+    private final TeamRepository teamRepository;
+
+    // before the other BEFORE_COMMIT listeners, OrgChangeOutbox has to run last
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrgChanged(OrgChangedEvent event) {
+        Instant now = Instant.now();
+        for (List<Long> employeeIds : ChunkUtils.chunks(notVersioned(event.getEmployeeIds(), event.getCreatedEmployeeIds(), event.getVersionedEmployeeIds()), ChunkUtils.MAX_IN_LIST_SIZE)) {
+            employeeRepository.bumpVersions(employeeIds, now);
+        }
+        for (List<Long> teamIds : ChunkUtils.chunks(notVersioned(event.getTeamIds(), event.getCreatedTeamIds(), event.getVersionedTeamIds()), ChunkUtils.MAX_IN_LIST_SIZE)) {
+            teamRepository.bumpVersions(teamIds, now);
+        }
+    }
+
+    private Set<Long> notVersioned(Set<Long> ids, Set<Long> createdIds, Set<Long> versionedIds) {
+        Set<Long> result = new HashSet<>(ids);
+        result.remove(null);
+        result.removeAll(createdIds);
+        result.removeAll(versionedIds);
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.employeeApplication.versioning;
+
+import lombok.Getter;
+
+/**
+ * A value together with the change token of the state it was read from.
+ *
+ * @param <T> type of the value
+ */
+@Getter
+public class Versioned<T> {
+
+    private final ChangeToken changeToken;
+    private final T value;
+
+    private Versioned(ChangeToken changeToken, T value) {
+        this.changeToken = changeToken;
+        this.value = value;
+    }
+
+    public static <T> Versioned<T> of(ChangeToken changeToken, T value) {
+        return new Versioned<>(changeToken, value);
+    }
+}
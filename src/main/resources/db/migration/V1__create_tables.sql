@@ -0,0 +1,17 @@
+-- Initial schema. Existing databases are baselined at this version, so this only runs on empty databases.
+create table employee
+(
+    employee_id bigserial primary key,
+    name        varchar(255),
+    team_id     bigint
+);
+
+create table team
+(
+    team_id      bigserial primary key,
+    name         varchar(255),
+    team_lead_id bigint references employee (employee_id)
+);
+
+alter table employee
+    add constraint fk_employee_team foreign key (team_id) references team (team_id);
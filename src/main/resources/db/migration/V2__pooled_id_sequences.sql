@@ -0,0 +1,4 @@
+-- Ids are allocated by Hibernate's pooled optimizer in blocks of 50 (allocationSize of the entity sequence generators),
+-- which allows JDBC batching of inserts. The sequence increment has to match the allocation size.
+alter sequence employee_employee_id_seq increment by 50;
+alter sequence team_team_id_seq increment by 50;
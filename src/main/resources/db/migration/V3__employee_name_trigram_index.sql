@@ -0,0 +1,5 @@
+-- Trigram index for employee name search. Serves both the ranked name search (similarity on lower(name))
+-- and substring filters of the form lower(name) like '%...%', which a B-tree index can't.
+create extension if not exists pg_trgm;
+
+create index employee_name_trgm_idx on employee using gin (lower(name) gin_trgm_ops);
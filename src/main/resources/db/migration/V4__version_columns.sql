@@ -0,0 +1,6 @@
+-- Row versions for optimistic locking and ETags, and last modification times for Last-Modified headers.
+-- Both are bumped whenever the dto of the row changes, including changes made through related rows.
+alter table employee add column version bigint not null default 0;
+alter table employee add column last_modified timestamp with time zone not null default now();
+alter table team add column version bigint not null default 0;
+alter table team add column last_modified timestamp with time zone not null default now();
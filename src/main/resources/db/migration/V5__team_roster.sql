@@ -0,0 +1,8 @@
+-- Materialized team rosters: the serialized TeamDto of every team, kept up to date in the same transaction as the
+-- changes to the team and its employees, so reading a team doesn't join and map its members.
+-- Rows are filled on application startup for teams that don't have one yet.
+create table team_roster
+(
+    team_id bigint primary key references team (team_id) on delete cascade,
+    roster  bytea not null
+);
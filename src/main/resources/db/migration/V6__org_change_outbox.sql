@@ -0,0 +1,18 @@
+-- Outbox of employee and team changes, one row per changed employee or team, appended in the same transaction as the change.
+-- change_id is the offset of the change feed. It is taken from org_change_head, whose row stays locked until the
+-- appending transaction commits, so changes are committed in offset order and a consumer never skips a late commit.
+create table org_change
+(
+    change_id   bigint primary key,
+    entity_type varchar(16)              not null,
+    entity_id   bigint                   not null,
+    changed_at  timestamp with time zone not null
+);
+
+create table org_change_head
+(
+    head_id        integer primary key,
+    last_change_id bigint not null
+);
+
+insert into org_change_head (head_id, last_change_id) values (1, 0);
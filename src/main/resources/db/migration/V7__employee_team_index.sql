@@ -0,0 +1,3 @@
+-- Index on the team of employees. Serves the per-team employee counts of the statistics (as an index-only scan),
+-- as well as the roster fetch and the bulk team membership updates, which all look employees up by team.
+create index employee_team_id_idx on employee (team_id);
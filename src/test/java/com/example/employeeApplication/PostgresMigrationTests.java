@@ -0,0 +1,100 @@
+package com.example.employeeApplication;
+
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.search.EmployeeNameSearchEngine;
+import com.example.employeeApplication.search.PostgresTrigramNameSearchEngine;
+import com.example.employeeApplication.service.EmployeeService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and validates the entities against the migrated schema, instead of
+ * letting Hibernate create it as the other tests do. Also runs the name search on the trigram index, which only
+ * exists on PostgreSQL. Needs Docker, the tests are skipped where it isn't available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "employee.search.engine=postgres"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresMigrationTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:14-alpine"));
+
+    @DynamicPropertySource
+    static void postgresDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private EmployeeNameSearchEngine nameSearchEngine;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void allMigrationsAreApplied() {
+        List<String> applied = Arrays.stream(flyway.info().applied()).map(x -> x.getVersion().getVersion()).collect(Collectors.toList());
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6", "7"), applied);
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from pg_indexes where indexname = 'employee_name_trgm_idx'", Integer.class));
+    }
+
+    @Test
+    void namesAreRankedBySimilarity() {
+        assertTrue(nameSearchEngine instanceof PostgresTrigramNameSearchEngine);
+        Long hannah = createEmployee("Hannah");
+        Long joanna = createEmployee("Joanna");
+        Long annaSmith = createEmployee("Anna Smith");
+        Long withWildcards = createEmployee("100%_Anna");
+        createEmployee("Bob");
+
+        List<Long> found = employeeService.searchByName("Anna", 10, 0).stream().map(EmployeeDto::getId).collect(Collectors.toList());
+        assertEquals(Arrays.asList(withWildcards, annaSmith, joanna, hannah), found);
+
+        List<Long> page = employeeRepository.searchIdsByNameSimilarity("anna", "anna", 2, 1).stream().map(Number::longValue).collect(Collectors.toList());
+        assertEquals(Arrays.asList(annaSmith, joanna), page);
+        // like wildcards in the query are matched literally
+        assertEquals(Collections.singletonList(withWildcards), nameSearchEngine.search("0%_a", 10, 0));
+    }
+
+    private Long createEmployee(String name) {
+        return employeeService.createEmployee(EmployeeCreateDto.builder().name(name).build()).getId();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.employeeApplication;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Clean-up shared by the tests writing to the database.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TestDatabase {
+
+    /**
+     * Deletes all teams and employees, with their rosters and change feed entries. The change feed head is kept,
+     * offsets keep growing across tests like in a running application.
+     *
+     * @param jdbcTemplate template of the application's data source
+     */
+    public static void deleteAll(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate(
+                "delete from team_roster",
+                "delete from org_change",
+                // team leads reference employees, employees reference teams
+                "update team set team_lead_id = null",
+                "delete from employee",
+                "delete from team");
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.employeeApplication.admission;
+
+import com.example.employeeApplication.configuration.AdmissionProperties;
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionInterceptorTests {
+
+    private AdmissionProperties properties;
+    private MeterRegistry meterRegistry;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        properties = new AdmissionProperties();
+        properties.setClientHeader("X-Client");
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new HandlerMethod(new TestController(), TestController.class.getMethod("list"));
+    }
+
+    @Test
+    void clientOverItsRateIsRejectedWith429() throws Exception {
+        AdmissionProperties.RateLimit limit = new AdmissionProperties.RateLimit();
+        limit.setPermitsPerSecond(0.5);
+        limit.setBurst(2);
+        properties.getEndpoints().put("TestController.list", limit);
+        AdmissionInterceptor interceptor = newInterceptor();
+
+        assertTrue(handle(interceptor, "a"));
+        assertTrue(handle(interceptor, "a"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("a"), response, handler));
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("TOO_MANY_REQUESTS"));
+        // every client has its own bucket
+        assertTrue(handle(interceptor, "b"));
+
+        assertEquals(1, meterRegistry.get(MetricsConfig.ADMISSION_REJECTED)
+                .tag("endpoint", "TestController.list").tag("reason", "rate-limit").counter().count());
+    }
+
+    @Test
+    void requestsOverTheConcurrencyLimitAreQueuedThenRejectedWith503() throws Exception {
+        properties.setMaxConcurrent(1);
+        properties.setMaxQueued(1);
+        properties.setQueueTimeout(Duration.ofMillis(10));
+        AdmissionInterceptor interceptor = newInterceptor();
+
+        MockHttpServletRequest running = request("a");
+        assertTrue(interceptor.preHandle(running, new MockHttpServletResponse(), handler));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("b"), response, handler));
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get(MetricsConfig.ADMISSION_QUEUED).tag("outcome", "rejected").timer().count());
+        assertEquals(1.0, meterRegistry.get(MetricsConfig.ADMISSION_IN_FLIGHT).gauge().value());
+
+        interceptor.afterCompletion(running, new MockHttpServletResponse(), handler, null);
+        assertEquals(0.0, meterRegistry.get(MetricsConfig.ADMISSION_IN_FLIGHT).gauge().value());
+        assertTrue(handle(interceptor, "b"));
+        assertEquals(1, meterRegistry.get(MetricsConfig.ADMISSION_REJECTED).tag("reason", "concurrency-limit").counter().count());
+    }
+
+    private AdmissionInterceptor newInterceptor() {
+        return new AdmissionInterceptor(properties, meterRegistry, new ObjectMapper());
+    }
+
+    private boolean handle(AdmissionInterceptor interceptor, String client) throws Exception {
+        MockHttpServletRequest request = request(client);
+        boolean admitted = interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        if (admitted) {
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        }
+        return admitted;
+    }
+
+    private static MockHttpServletRequest request(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test");
+        request.addHeader("X-Client", client);
+        return request;
+    }
+
+    static class TestController {
+        public void list() {
+        }
+    }
+}
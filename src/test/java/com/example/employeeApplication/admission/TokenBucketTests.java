@@ -0,0 +1,67 @@
+package com.example.employeeApplication.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAvailableThenTokensRefillAtTheRate() {
+        long now = -5 * SECOND;
+        TokenBucket bucket = new TokenBucket(2, 3, now);
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now));
+        assertEquals(SECOND / 4, bucket.tryAcquire(now + SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now + SECOND / 2));
+
+        // idle time refills the bucket up to the burst only
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertEquals(SECOND / 2, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void concurrentCallersTakeExactlyTheBurst() throws Exception {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(1, 1000, now);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> callers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                callers.add(() -> {
+                    int taken = 0;
+                    for (int j = 0; j < 500; j++) {
+                        if (bucket.tryAcquire(now) == 0) {
+                            taken++;
+                        }
+                    }
+                    return taken;
+                });
+            }
+            int taken = 0;
+            for (Future<Integer> result : executor.invokeAll(callers)) {
+                taken += result.get();
+            }
+            assertEquals(1000, taken);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
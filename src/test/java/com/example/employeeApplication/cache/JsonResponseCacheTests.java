@@ -0,0 +1,117 @@
+package com.example.employeeApplication.cache;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.service.TeamService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.StreamUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JsonResponseCacheTests {
+
+    private static final int MEMBERS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long teamId;
+    private Long employeeId;
+
+    @BeforeEach
+    void createTeam() {
+        List<Long> employeeIds = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            employeeIds.add(employeeService.createEmployee(EmployeeCreateDto.builder().name("Encoded employee " + i).build()).getId());
+        }
+        employeeId = employeeIds.get(0);
+        teamId = teamService.createTeam(TeamCreateDto.builder().name("Encoded team").employeeIds(employeeIds).build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void gzipIsSentOnlyWhenAccepted() throws Exception {
+        byte[] plain = mockMvc.perform(get("/api/teams/{id}", teamId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        MvcResult gzipped = mockMvc.perform(get("/api/teams/{id}", teamId).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+
+        assertArrayEquals(plain, gunzip(gzipped.getResponse().getContentAsByteArray()));
+        mockMvc.perform(get("/api/teams/{id}", teamId).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void cachedBodyIsServedWithVersionStatementOnly() throws Exception {
+        mockMvc.perform(get("/api/employees/{id}", employeeId)).andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Encoded employee 0"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void changesReplaceCachedBodies() throws Exception {
+        mockMvc.perform(get("/api/teams/")).andExpect(jsonPath("$[0].employees[0].name").value("Encoded employee 0"));
+        mockMvc.perform(get("/api/employees/{id}", employeeId)).andExpect(jsonPath("$.name").value("Encoded employee 0"));
+
+        employeeService.updateEmployee(employeeId, EmployeeCreateDto.builder().name("Renamed").teamId(teamId).build(), null);
+
+        mockMvc.perform(get("/api/teams/")).andExpect(jsonPath("$[0].employees[0].name").value("Renamed"));
+        mockMvc.perform(get("/api/employees/{id}", employeeId)).andExpect(jsonPath("$.name").value("Renamed"));
+    }
+
+    private byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+}
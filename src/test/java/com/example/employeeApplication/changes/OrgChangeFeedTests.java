@@ -0,0 +1,151 @@
+package com.example.employeeApplication.changes;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.BatchItemDto;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.OrgChangeBatchDto;
+import com.example.employeeApplication.dto.OrgChangeDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.entity.ChangedEntityType;
+import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.service.TeamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrgChangeFeedTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private OrgChangeFeed orgChangeFeed;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void mutationsAppendChangesInOrder() {
+        long head = orgChangeFeed.getHead();
+        Long employeeId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Fed employee").build()).getId();
+        Long teamId = teamService.createTeam(TeamCreateDto.builder().name("Fed team")
+                .employeeIds(Collections.singletonList(employeeId)).build()).getId();
+        teamService.deleteTeam(teamId);
+
+        OrgChangeBatchDto batch = orgChangeFeed.read(head, null);
+        assertEquals(Arrays.asList(
+                        ChangedEntityType.EMPLOYEE + "-" + employeeId,
+                        ChangedEntityType.EMPLOYEE + "-" + employeeId, ChangedEntityType.TEAM + "-" + teamId,
+                        ChangedEntityType.EMPLOYEE + "-" + employeeId, ChangedEntityType.TEAM + "-" + teamId),
+                describe(batch.getChanges()));
+        assertEquals(head + 5, batch.getNextOffset());
+        assertEquals(head + 5, orgChangeFeed.getHead());
+        assertTrue(orgChangeFeed.read(batch.getNextOffset(), null).getChanges().isEmpty());
+    }
+
+    @Test
+    void longPollIsAnsweredByTheNextCommit() throws Exception {
+        long head = orgChangeFeed.getHead();
+        MvcResult poll = mockMvc.perform(get("/api/changes/").param("after", String.valueOf(head)).param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Long employeeId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Awaited employee").build()).getId();
+
+        mockMvc.perform(asyncDispatch(poll))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("EMPLOYEE"))
+                .andExpect(jsonPath("$.changes[0].id").value(employeeId))
+                .andExpect(jsonPath("$.nextOffset").value(head + 1));
+    }
+
+    @Test
+    void localConsumerMirrorsEmployeesIncrementally() {
+        Map<Long, String> mirror = new HashMap<>();
+        long offset = orgChangeFeed.getHead();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(employeeService.createEmployee(EmployeeCreateDto.builder().name("Mirrored " + i).build()).getId());
+        }
+        offset = sync(mirror, offset);
+        employeeService.updateEmployee(ids.get(0), EmployeeCreateDto.builder().name("Renamed").build(), null);
+        employeeService.deleteEmployee(ids.get(1));
+        sync(mirror, offset);
+
+        Map<Long, String> expected = new HashMap<>();
+        employeeService.getEmployeesByIds(ids).stream()
+                .filter(x -> x.getResult() != null)
+                .forEach(x -> expected.put(x.getId(), x.getResult().getName()));
+        assertEquals(expected, mirror);
+        assertEquals("Renamed", mirror.get(ids.get(0)));
+        assertFalse(mirror.containsKey(ids.get(1)));
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/changes/").param("after", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/changes/").param("wait", "61")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/changes/").param("limit", "0")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Applies the changes after the offset to the mirror, reading the current state of changed employees in batches.
+     */
+    private long sync(Map<Long, String> mirror, long offset) {
+        OrgChangeBatchDto batch;
+        while (!(batch = orgChangeFeed.read(offset, 2)).getChanges().isEmpty()) {
+            List<Long> employeeIds = new ArrayList<>();
+            batch.getChanges().stream().filter(x -> x.getType() == ChangedEntityType.EMPLOYEE).forEach(x -> employeeIds.add(x.getId()));
+            if (!employeeIds.isEmpty()) {
+                for (BatchItemDto<EmployeeDto> item : employeeService.getEmployeesByIds(employeeIds)) {
+                    if (item.getResult() != null) {
+                        mirror.put(item.getId(), item.getResult().getName());
+                    } else {
+                        mirror.remove(item.getId());
+                    }
+                }
+            }
+            offset = batch.getNextOffset();
+        }
+        return offset;
+    }
+
+    private List<String> describe(List<OrgChangeDto> changes) {
+        List<String> descriptions = new ArrayList<>();
+        changes.forEach(x -> descriptions.add(x.getType() + "-" + x.getId()));
+        return descriptions;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.employeeApplication.coalescing;
+
+import com.example.employeeApplication.configuration.MetricsConfig;
+import com.example.employeeApplication.event.OrgChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingAspectTests {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CoalescingAspect aspect = new CoalescingAspect(meterRegistry);
+    private final SlowLoader target = new SlowLoader();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private SlowLoader loader;
+
+    @BeforeEach
+    void createProxy() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        loader = factory.getProxy();
+    }
+
+    @AfterEach
+    void shutdown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneLoad() throws Exception {
+        List<Future<String>> results = callConcurrently(() -> loader.load("a"));
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("a#1", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.loads.get());
+        assertEquals(CALLERS - 1, meterRegistry.get(MetricsConfig.COALESCED_CALLS).counter().count());
+    }
+
+    @Test
+    void callsWithDifferentArgumentsAreNotCoalesced() throws Exception {
+        target.release.countDown();
+        assertEquals("a#1", loader.load("a"));
+        assertEquals("b#2", loader.load("b"));
+        // the previous load has finished, so the next call loads again
+        assertEquals("a#3", loader.load("a"));
+    }
+
+    @Test
+    void exceptionIsSharedWithWaitingCalls() throws Exception {
+        List<Future<String>> results = callConcurrently(() -> loader.load(null));
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+        assertEquals(1, target.loads.get());
+    }
+
+    @Test
+    void callsAfterOrgChangeDontJoinEarlierLoad() throws Exception {
+        Future<String> before = executor.submit(() -> loader.load("a"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        aspect.onOrgChanged(OrgChangedEvent.builder().build());
+        Future<String> after = executor.submit(() -> loader.load("a"));
+        target.release.countDown();
+
+        assertEquals("a#1", before.get(5, TimeUnit.SECONDS));
+        assertEquals("a#2", after.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Starts the calls, and returns once all but the first are waiting for the first one, which blocks in the loader
+     */
+    private List<Future<String>> callConcurrently(Callable<String> call) throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(call));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find(MetricsConfig.COALESCED_CALLS).counters().stream().mapToDouble(x -> x.count()).sum() < CALLERS - 1) {
+            assertTrue(System.nanoTime() < deadline, "calls didn't join the running load");
+            Thread.sleep(1);
+        }
+        return results;
+    }
+
+    static class SlowLoader {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Coalesced
+        public String load(String key) throws InterruptedException {
+            int load = loads.incrementAndGet();
+            started.countDown();
+            release.await();
+            if (key == null) {
+                throw new IllegalArgumentException("No key");
+            }
+            return key + "#" + load;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.employeeApplication.configuration;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.exception.ApiException;
+import com.example.employeeApplication.service.EmployeeService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that read-only transactions are routed to the replica, against two embedded databases. Hibernate creates
+ * the schema on the primary only, so it is copied to the replica without data; the replica then only has the rows a
+ * test copies to it, and a read not seeing a written row proves it went to the replica.
+ */
+@SpringBootTest(properties = {
+        "employee.datasource.replica.jdbc-url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "employee.datasource.replica.username=sa"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadReplicaConfigTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    private HikariDataSource replicaDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String primaryName;
+    private String replicaName;
+
+    @BeforeAll
+    void copySchema() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        new JdbcTemplate(primaryDataSource).queryForList("script nodata", String.class).forEach(replica::execute);
+        primaryName = new JdbcTemplate(primaryDataSource).queryForObject("select database()", String.class);
+        replicaName = replica.queryForObject("select database()", String.class);
+        assertNotEquals(primaryName, replicaName);
+    }
+
+    @AfterAll
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void onlyReadOnlyTransactionsUseTheReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals(replicaName, readOnly.execute(status -> jdbcTemplate.queryForObject("select database()", String.class)));
+        assertEquals(primaryName, readWrite.execute(status -> jdbcTemplate.queryForObject("select database()", String.class)));
+        assertEquals(primaryName, jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    @Test
+    void readMethodsUseTheReplica() {
+        Long id = employeeService.createEmployee(EmployeeCreateDto.builder().name("Written to primary").build()).getId();
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from employee where employee_id = ?", Long.class, id));
+        ApiException exception = assertThrows(ApiException.class, () -> employeeService.getEmployeeById(id));
+        assertEquals(404, exception.getHttpStatus().value());
+    }
+
+    @Test
+    void cachedEmployeeIsReplacedOnceReplicaCatchesUp() {
+        Long id = employeeService.createEmployee(EmployeeCreateDto.builder().name("Before update").build()).getId();
+        replicate(id);
+        assertEquals("Before update", employeeService.getEmployeeById(id).getName());
+
+        employeeService.updateEmployee(id, EmployeeCreateDto.builder().name("After update").build(), null);
+        // the replica lags behind, the read still sees and caches the previous state
+        assertEquals("Before update", employeeService.getEmployeeById(id).getName());
+
+        replicate(id);
+        assertEquals("After update", employeeService.getEmployeesByIds(Collections.singletonList(id)).get(0).getResult().getName());
+        assertEquals("After update", employeeService.getEmployeeById(id).getName());
+    }
+
+    private void replicate(Long id) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("select name, version, last_modified from employee where employee_id = ?", id);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("delete from employee where employee_id = ?", id);
+        replica.update("insert into employee (employee_id, name, version, last_modified) values (?, ?, ?, ?)",
+                id, row.get("name"), row.get("version"), row.get("last_modified"));
+    }
+}
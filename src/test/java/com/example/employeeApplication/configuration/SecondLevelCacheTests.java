@@ -0,0 +1,152 @@
+package com.example.employeeApplication.configuration;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.service.TeamService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which second-level cache regions the bulk HQL writes evict. Entities and collections are loaded once to fill
+ * the regions, then a bulk write must evict exactly the regions holding data of the table it writes to.
+ */
+@SpringBootTest(properties = "employee.jpa.second-level-cache=true")
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    private static final String TEAM_EMPLOYEES = TeamEntity.class.getName() + ".employeesInTeam";
+    private static final String EMPLOYEE_TEAMS_LED = EmployeeEntity.class.getName() + ".teamsLed";
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Cache cache;
+    private Long teamId;
+    private Long teamLeadId;
+
+    @BeforeEach
+    void createTeam() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+        teamLeadId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Cached lead").build()).getId();
+        Long memberId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Cached member").build()).getId();
+        teamId = teamService.createTeam(TeamCreateDto.builder()
+                .name("Cached")
+                .teamLeadId(teamLeadId)
+                .employeeIds(Arrays.asList(teamLeadId, memberId))
+                .build()).getId();
+        loadTeam();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+        // the deletes above bypass Hibernate, so it can't evict the regions on its own
+        cache.evictAllRegions();
+    }
+
+    @Test
+    void loadedTeamIsReadFromCache() {
+        assertAllCached();
+        statistics.clear();
+        loadTeam();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", SecondLevelCacheConfig.TEAM, "result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void employeeBulkUpdateEvictsEmployeeRegions() {
+        transactionTemplate.executeWithoutResult(status ->
+                employeeRepository.bumpVersions(Collections.singleton(teamLeadId), Instant.now()));
+
+        assertFalse(cache.containsEntity(EmployeeEntity.class, teamLeadId));
+        assertFalse(cache.containsCollection(TEAM_EMPLOYEES, teamId));
+        assertTrue(cache.containsEntity(TeamEntity.class, teamId));
+        assertTrue(cache.containsCollection(EMPLOYEE_TEAMS_LED, teamLeadId));
+    }
+
+    @Test
+    void teamBulkUpdateEvictsTeamRegions() {
+        transactionTemplate.executeWithoutResult(status -> teamRepository.clearTeamLead(teamLeadId));
+
+        assertFalse(cache.containsEntity(TeamEntity.class, teamId));
+        assertFalse(cache.containsCollection(EMPLOYEE_TEAMS_LED, teamLeadId));
+        assertTrue(cache.containsEntity(EmployeeEntity.class, teamLeadId));
+        assertTrue(cache.containsCollection(TEAM_EMPLOYEES, teamId));
+    }
+
+    @Test
+    void teamNameLookupIsCachedUntilTeamTableChanges() {
+        teamRepository.findAllByNameEqualsIgnoreCase("cached");
+        statistics.clear();
+        assertTrue(teamRepository.findAllByNameEqualsIgnoreCase("cached").isPresent());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        transactionTemplate.executeWithoutResult(status ->
+                employeeRepository.bumpVersions(Collections.singleton(teamLeadId), Instant.now()));
+        assertTrue(teamRepository.findAllByNameEqualsIgnoreCase("cached").isPresent());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+
+        transactionTemplate.executeWithoutResult(status ->
+                teamRepository.bumpVersions(Collections.singleton(teamId), Instant.now()));
+        assertTrue(teamRepository.findAllByNameEqualsIgnoreCase("cached").isPresent());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+    }
+
+    private void loadTeam() {
+        transactionTemplate.executeWithoutResult(status -> {
+            TeamEntity team = teamRepository.findById(teamId).orElseThrow(IllegalStateException::new);
+            team.getEmployeesInTeam().forEach(employee -> employee.getTeamsLed().size());
+        });
+    }
+
+    private void assertAllCached() {
+        assertTrue(cache.containsEntity(TeamEntity.class, teamId));
+        assertTrue(cache.containsCollection(TEAM_EMPLOYEES, teamId));
+        assertTrue(cache.containsEntity(EmployeeEntity.class, teamLeadId));
+        assertTrue(cache.containsCollection(EMPLOYEE_TEAMS_LED, teamLeadId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.employeeApplication.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadConfigTests {
+
+    @Test
+    void executorRunsTasksOnVirtualThreadsOrFailsBeforeJava21() throws Exception {
+        if (!virtualThreadsSupported()) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadExecutor);
+            assertTrue(e.getMessage().contains("Java 21"));
+            return;
+        }
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadExecutor();
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get();
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean virtualThreadsSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
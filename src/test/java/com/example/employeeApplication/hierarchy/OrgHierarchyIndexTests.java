@@ -0,0 +1,112 @@
+package com.example.employeeApplication.hierarchy;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.service.TeamService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrgHierarchyIndexTests {
+
+    private static final String ALL_TEAM_IDS_QUERY = "select e.id as id, e.team.id as teamId from EmployeeEntity e order by e.id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void hierarchyFollowsWritesAndIsReadFromMemory() throws Exception {
+        Long head = createEmployee("Head");
+        Long lead = createEmployee("Lead");
+        Long member = createEmployee("Member");
+        teamService.createTeam(TeamCreateDto.builder().name("Top").teamLeadId(head).employeeIds(Collections.singletonList(lead)).build());
+        Long bottomTeam = teamService.createTeam(TeamCreateDto.builder().name("Bottom").teamLeadId(lead).employeeIds(Collections.singletonList(member)).build()).getId();
+
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/leads", member))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leadIds.length()").value(2))
+                .andExpect(jsonPath("$.leadIds[1]").value(head))
+                .andExpect(jsonPath("$.cyclic").value(false));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/reports", head))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reportIds.length()").value(2));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // the head joins the bottom team, closing a cycle head -> lead -> head
+        teamService.updateTeam(bottomTeam, TeamCreateDto.builder().name("Bottom").teamLeadId(lead).employeeIds(Arrays.asList(member, head)).build(), null);
+        mockMvc.perform(get("/api/hierarchy/cycles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cycles.length()").value(1))
+                .andExpect(jsonPath("$.cycles[0][0]").value(head))
+                .andExpect(jsonPath("$.cycles[0][1]").value(lead));
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/leads", -1))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void changesAreAppliedOnCommitWithoutReloadingTheOrg() throws Exception {
+        Long lead = createEmployee("Lead");
+        Long teamId = teamService.createTeam(TeamCreateDto.builder().name("Team").teamLeadId(lead).build()).getId();
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/reports", lead))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reportIds.length()").value(0));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Long newcomer = createEmployee("Newcomer");
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/leads", newcomer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leadIds.length()").value(0));
+
+        employeeService.updateEmployee(newcomer, EmployeeCreateDto.builder().teamId(teamId).build(), null);
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/leads", newcomer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.leadIds[0]").value(lead));
+
+        employeeService.deleteEmployee(newcomer);
+        mockMvc.perform(get("/api/hierarchy/employees/{id}/leads", newcomer))
+                .andExpect(status().isNotFound());
+        assertEquals(0, statistics.getQueryStatistics(ALL_TEAM_IDS_QUERY).getExecutionCount());
+    }
+
+    private Long createEmployee(String name) {
+        return employeeService.createEmployee(EmployeeCreateDto.builder().name(name).build()).getId();
+    }
+}
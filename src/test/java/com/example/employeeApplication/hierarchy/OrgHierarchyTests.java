@@ -0,0 +1,57 @@
+package com.example.employeeApplication.hierarchy;
+
+import org.junit.jupiter.api.Test;
+
+import static com.example.employeeApplication.hierarchy.OrgHierarchy.NO_ID;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgHierarchyTests {
+
+    /**
+     * Team 10 led by 1 (a member), team 20 led by 2, team 30 led by 4; teams 40 and 50 are led by 7 and 8, who are
+     * members of each other's team. Employee 9 is in no team.
+     */
+    private final OrgHierarchy hierarchy = OrgHierarchy.build(0,
+            new long[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+            new long[]{10, 10, 10, 20, 20, 30, 50, 40, NO_ID, 40},
+            new long[]{10, 20, 30, 40, 50},
+            new long[]{1, 2, 4, 7, 8});
+
+    @Test
+    void reportsAreListedLevelByLevel() {
+        assertArrayEquals(new long[]{2, 3, 4, 5, 6}, hierarchy.getReports(1));
+        assertArrayEquals(new long[]{4, 5, 6}, hierarchy.getReports(2));
+        assertArrayEquals(new long[0], hierarchy.getReports(6));
+        assertArrayEquals(new long[0], hierarchy.getReports(9));
+        // on a cycle, the lead itself is not its own report
+        assertArrayEquals(new long[]{8, 10}, hierarchy.getReports(7));
+    }
+
+    @Test
+    void reportingLineEndsAtTopLead() {
+        OrgHierarchy.ReportingLine reportingLine = hierarchy.getReportingLine(6);
+        assertArrayEquals(new long[]{4, 2, 1}, reportingLine.getLeadIds());
+        assertFalse(reportingLine.isCyclic());
+        assertArrayEquals(new long[0], hierarchy.getReportingLine(1).getLeadIds());
+        assertArrayEquals(new long[0], hierarchy.getReportingLine(9).getLeadIds());
+    }
+
+    @Test
+    void reportingLineGoesAroundCycleOnce() {
+        OrgHierarchy.ReportingLine fromCycle = hierarchy.getReportingLine(7);
+        assertArrayEquals(new long[]{8}, fromCycle.getLeadIds());
+        assertTrue(fromCycle.isCyclic());
+
+        OrgHierarchy.ReportingLine intoCycle = hierarchy.getReportingLine(10);
+        assertArrayEquals(new long[]{7, 8}, intoCycle.getLeadIds());
+        assertTrue(intoCycle.isCyclic());
+    }
+
+    @Test
+    void cyclesAreFoundOnce() {
+        assertEquals(1, hierarchy.getCycles().size());
+        assertArrayEquals(new long[]{7, 8}, hierarchy.getCycles().get(0));
+        assertTrue(hierarchy.contains(9));
+        assertFalse(hierarchy.contains(11));
+    }
+}
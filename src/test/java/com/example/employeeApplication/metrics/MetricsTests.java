@@ -0,0 +1,62 @@
+package com.example.employeeApplication.metrics;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.service.TeamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class MetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void prometheusEndpointExposesApplicationMetrics() throws Exception {
+        Long teamId = teamService.createTeam(TeamCreateDto.builder().name("Measured team").build()).getId();
+        mockMvc.perform(get("/api/teams/")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/teams/{id}", teamId)).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "http_server_requests_seconds_bucket\\{.*uri=\"/api/teams\".*");
+        assertContains(scrape, "http_server_requests_seconds\\{.*uri=\"/api/teams/\\{id\\}\",quantile=\"0.99\",\\} .*");
+        assertContains(scrape, "http_server_requests_sql_statements_sum\\{method=\"GET\",uri=\"/api/teams\",\\} 2.0");
+        assertContains(scrape, "app_service_seconds_count\\{class=\"com.example.employeeApplication.service.TeamService\",.*method=\"getAllTeamsJson\",\\} 1.0");
+        assertContains(scrape, "app_mapper_seconds_count\\{method=\"mapTeamEntityList\",\\} .*");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_count\\{.*method=\"findAllRosters\".*");
+        assertContains(scrape, "hikaricp_connections_pending\\{.*");
+    }
+
+    private void assertContains(String scrape, String line) {
+        assertTrue(Pattern.compile("^" + line + "$", Pattern.MULTILINE).matcher(scrape).find(), line);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long leadId;
+
+    @BeforeEach
+    void createEmployees() {
+        // Alice leads two teams and is in one of them, Bob leads one team without being in a team
+        TeamEntity red = teamRepository.save(TeamEntity.builder().name("Red").build());
+        TeamEntity blue = teamRepository.save(TeamEntity.builder().name("Blue").build());
+        TeamEntity green = teamRepository.save(TeamEntity.builder().name("Green").build());
+        EmployeeEntity alice = save("Alice Lead", red);
+        EmployeeEntity bob = save("bob lead", null);
+        save("Carol", red);
+        save("Dave", null);
+        save("100%_sure", null);
+        red.setTeamLead(alice);
+        blue.setTeamLead(alice);
+        green.setTeamLead(bob);
+        teamRepository.save(red);
+        teamRepository.save(blue);
+        teamRepository.save(green);
+        leadId = alice.getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void teamLeadsAreReturnedOnceAndNameIgnoresCase() throws Exception {
+        mockMvc.perform(get("/api/employees/search").param("teamLeadsOnly", "true").param("name", "LEAD"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/employees/search").param("teamLeadsOnly", "true").param("inATeam", "true"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(leadId));
+        mockMvc.perform(get("/api/employees/search").param("teamLeadsOnly", "true").param("inATeam", "false"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("bob lead"));
+    }
+
+    @Test
+    void nameWildcardsAreMatchedLiterally() throws Exception {
+        mockMvc.perform(get("/api/employees/search").param("name", "%_"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("100%_sure"));
+    }
+
+    @Test
+    void resultsArePagedAndSorted() throws Exception {
+        mockMvc.perform(get("/api/employees/search").param("sort", "name,desc").param("size", "2").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "5"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Carol"))
+                .andExpect(jsonPath("$[1].name").value("Alice Lead"));
+    }
+
+    @Test
+    void invalidSortOrPageSizeIsRejected() throws Exception {
+        mockMvc.perform(get("/api/employees/search").param("sort", "team.name"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/search").param("size", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private EmployeeEntity save(String name, TeamEntity team) {
+        EmployeeEntity employee = new EmployeeEntity();
+        employee.setName(name);
+        employee.setTeam(team);
+        return employeeRepository.save(employee);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.employeeApplication.repository;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.roster.TeamRosterProjector;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the read endpoints run a constant number of SQL statements, no matter how many teams and employees exist.
+ * Endpoints supporting conditional requests run one more statement, reading the version columns for the ETag.
+ * Team endpoints read the materialized rosters, which are built once after inserting the test data.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FetchPlanQueryCountTests {
+
+    private static final int TEAMS = 5;
+    private static final int EMPLOYEES_PER_TEAM = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private TeamRosterProjector teamRosterProjector;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long teamId;
+    private Long employeeId;
+
+    @BeforeAll
+    void createTeams() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < TEAMS; i++) {
+            TeamEntity team = teamRepository.save(TeamEntity.builder().name("Team " + i).build());
+            List<EmployeeEntity> members = new ArrayList<>();
+            for (int j = 0; j < EMPLOYEES_PER_TEAM; j++) {
+                EmployeeEntity employee = new EmployeeEntity();
+                employee.setName("Employee " + i + "-" + j);
+                employee.setTeam(team);
+                members.add(employee);
+            }
+            members = employeeRepository.saveAll(members);
+            team.setTeamLead(members.get(0));
+            teamRepository.save(team);
+
+            teamId = team.getId();
+            employeeId = members.get(1).getId();
+        }
+        // the data is inserted through repositories, without the events maintaining the rosters
+        teamRosterProjector.backfill();
+    }
+
+    @AfterAll
+    void deleteTeams() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void getAllTeamsUsesVersionAndRosterStatements() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/teams/"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TEAMS))
+                .andExpect(jsonPath("$[0].employees.length()").value(EMPLOYEES_PER_TEAM))
+                .andExpect(jsonPath("$[0].teamLead.name").exists());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getTeamByIdUsesVersionAndRosterStatements() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/teams/{id}", teamId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.length()").value(EMPLOYEES_PER_TEAM));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getEmployeeByIdUsesVersionAndEmployeeStatements() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamWritesOneEmployeePerLine() throws Exception {
+        String body = mockMvc.perform(get("/api/employees/stream"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(TEAMS * EMPLOYEES_PER_TEAM, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"id\":"), line);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/employees/",
+            "/api/employees/stream",
+            "/api/employees/search",
+            "/api/employees/search?inATeam=true",
+            "/api/employees/search?inATeam=false",
+            "/api/employees/search?teamLeadsOnly=true",
+            "/api/employees/search?teamLeadsOnly=true&inATeam=true",
+            "/api/employees/search?teamLeadsOnly=true&inATeam=false",
+            "/api/employees/search?fields=id,name&expand=team"
+    })
+    void employeeListsUseSingleStatement(String url) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertEquals(1, statistics.getPrepareStatementCount(), url);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.employeeApplication.roster;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.exception.ApiException;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.service.TeamService;
+import com.example.employeeApplication.utils.ModelMapperUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the materialized rosters are updated by every change to a team or its employees.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TeamRosterTests {
+
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private TeamRosterProjector teamRosterProjector;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long firstTeamId;
+    private Long secondTeamId;
+    private Long leadId;
+    private Long memberId;
+
+    @BeforeEach
+    void createTeams() {
+        leadId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Lead").build()).getId();
+        memberId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Member").build()).getId();
+        firstTeamId = teamService.createTeam(TeamCreateDto.builder().name("First roster team")
+                .teamLeadId(leadId).employeeIds(Arrays.asList(leadId, memberId)).build()).getId();
+        secondTeamId = teamService.createTeam(TeamCreateDto.builder().name("Second roster team").build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void rosterMatchesTheMappedTeam() throws IOException {
+        TeamDto roster = readRoster(firstTeamId);
+        TeamDto mapped = new TransactionTemplate(transactionManager)
+                .execute(status -> ModelMapperUtils.mapTeamEntity(teamRepository.findWithRosterById(firstTeamId).get()));
+
+        assertEquals(objectMapper.writeValueAsString(mapped), objectMapper.writeValueAsString(roster));
+        assertEquals(2, roster.getEmployees().size());
+        assertEquals(leadId, roster.getTeamLead().getId());
+    }
+
+    @Test
+    void renamingAMemberUpdatesTheRoster() throws IOException {
+        employeeService.updateEmployee(leadId, EmployeeCreateDto.builder().name("Renamed lead").teamId(firstTeamId).build(), null);
+
+        TeamDto roster = readRoster(firstTeamId);
+        assertEquals("Renamed lead", roster.getTeamLead().getName());
+        assertTrue(roster.getEmployees().stream().anyMatch(x -> x.getName().equals("Renamed lead")));
+    }
+
+    @Test
+    void movingAnEmployeeUpdatesBothRosters() throws IOException {
+        employeeService.updateEmployee(memberId, EmployeeCreateDto.builder().name("Member").teamId(secondTeamId).build(), null);
+
+        assertEquals(1, readRoster(firstTeamId).getEmployees().size());
+        assertEquals(memberId, readRoster(secondTeamId).getEmployees().get(0).getId());
+    }
+
+    @Test
+    void deletingTeamsAndLeadsUpdatesTheRosters() throws IOException {
+        employeeService.deleteEmployee(leadId);
+        assertNull(readRoster(firstTeamId).getTeamLead());
+
+        teamService.deleteTeam(firstTeamId);
+        assertThrows(ApiException.class, () -> teamService.getTeamJsonById(firstTeamId));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from team_roster where team_id = ?", Long.class, firstTeamId));
+        TeamDto[] all = objectMapper.readValue(teamService.getAllTeamsJson(), TeamDto[].class);
+        assertEquals(1, all.length);
+        assertEquals(secondTeamId, all[0].getId());
+    }
+
+    @Test
+    void teamWithoutRosterIsReadWithoutWritingIt() throws IOException {
+        jdbcTemplate.update("delete from team_roster where team_id = ?", firstTeamId);
+
+        TeamDto team = readRoster(firstTeamId);
+        assertEquals("First roster team", team.getName());
+        assertEquals(2, team.getEmployees().size());
+        assertEquals(2, objectMapper.readValue(teamService.getAllTeamsJson(), TeamDto[].class).length);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from team_roster where team_id = ?", Long.class, firstTeamId));
+
+        teamRosterProjector.backfill();
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from team_roster where team_id = ?", Long.class, firstTeamId));
+    }
+
+    private TeamDto readRoster(Long teamId) throws IOException {
+        return objectMapper.readValue(teamService.getTeamJsonById(teamId), TeamDto.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.employeeApplication.search;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeNameSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void searchReturnsRankedPageAndFollowsUpdates() throws Exception {
+        Long joanna = employeeService.createEmployee(EmployeeCreateDto.builder().name("Joanna Smith").build()).getId();
+        Long ann = employeeService.createEmployee(EmployeeCreateDto.builder().name("Ann Smith").build()).getId();
+        Long bob = employeeService.createEmployee(EmployeeCreateDto.builder().name("Bob").build()).getId();
+
+        mockMvc.perform(get("/api/employees/search/name").param("name", "ANN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(ann))
+                .andExpect(jsonPath("$[1].id").value(joanna));
+        mockMvc.perform(get("/api/employees/search/name").param("name", "smith").param("limit", "1").param("offset", "1"))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        employeeService.updateEmployee(bob, EmployeeCreateDto.builder().name("Annie").build(), null);
+        employeeService.deleteEmployee(joanna);
+        mockMvc.perform(get("/api/employees/search/name").param("name", "ann"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(bob))
+                .andExpect(jsonPath("$[1].id").value(ann));
+    }
+
+    @Test
+    void searchRejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/employees/search/name").param("name", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/search/name").param("name", "a").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/search/name").param("name", "a").param("offset", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.employeeApplication.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NgramIndexTests {
+
+    @Test
+    void similarityMatchesPgTrgm() {
+        // example from the pg_trgm documentation
+        assertEquals(0.363636f, Trigrams.similarity("word", "two words"), 0.000001f);
+        assertEquals(1f, Trigrams.similarity("John Doe", "doe john"), 0.000001f);
+        assertEquals(0f, Trigrams.similarity("abc", "xyz"), 0.000001f);
+    }
+
+    @Test
+    void searchRanksBySimilarityThenId() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "Anna Annabel");
+        index.put(2L, "Ann");
+        index.put(3L, "Joanna");
+        index.put(4L, "Bob");
+        index.put(5L, "Ann");
+
+        assertEquals(Arrays.asList(2L, 5L, 1L, 3L), index.search("ann", 10, 0));
+        assertEquals(Arrays.asList(1L, 3L), index.search("ann", 2, 2));
+        assertEquals(Arrays.asList(3L, 4L), index.search("o", 10, 0));
+        assertEquals(Collections.emptyList(), index.search("annx", 10, 0));
+    }
+
+    @Test
+    void putReplacesAndRemoveDeletesName() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "Alice");
+        index.put(1L, "Bob");
+        index.put(2L, "Alicia");
+
+        assertEquals(Collections.singletonList(2L), index.search("alic", 10, 0));
+        assertEquals(Collections.singletonList(1L), index.search("bob", 10, 0));
+
+        index.remove(2L);
+        assertEquals(Collections.emptyList(), index.search("alic", 10, 0));
+    }
+}
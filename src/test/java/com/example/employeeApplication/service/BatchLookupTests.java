@@ -0,0 +1,107 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.configuration.CacheConfig;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BatchLookupTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long teamId;
+    private Long firstEmployeeId;
+    private Long secondEmployeeId;
+
+    @BeforeEach
+    void createTeam() {
+        firstEmployeeId = employeeService.createEmployee(EmployeeCreateDto.builder().name("First batched").build()).getId();
+        secondEmployeeId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Second batched").build()).getId();
+        teamId = teamService.createTeam(TeamCreateDto.builder().name("Batched team").teamLeadId(firstEmployeeId)
+                .employeeIds(Collections.singletonList(firstEmployeeId)).build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+        cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+    }
+
+    @Test
+    void employeesAreReturnedInRequestOrderWithNotFoundMarkers() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/api/employees/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + secondEmployeeId + ",-1," + firstEmployeeId + "," + secondEmployeeId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].result.name").value("Second batched"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(-1))
+                .andExpect(jsonPath("$[1].result").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[2].result.name").value("First batched"))
+                .andExpect(jsonPath("$[3].result.id").value(secondEmployeeId));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void teamsAreReturnedFromRosters() throws Exception {
+        mockMvc.perform(post("/api/teams/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[-1," + teamId + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].result.name").value("Batched team"))
+                .andExpect(jsonPath("$[1].result.teamLead.id").value(firstEmployeeId))
+                .andExpect(jsonPath("$[1].result.employees.length()").value(1));
+    }
+
+    @Test
+    void invalidBatchesAreRejected() throws Exception {
+        List<Long> tooMany = new ArrayList<>(Collections.nCopies(BatchLookup.MAX_BATCH_SIZE + 1, firstEmployeeId));
+        mockMvc.perform(post("/api/employees/batch").contentType(MediaType.APPLICATION_JSON).content(tooMany.toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/teams/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/teams/batch").contentType(MediaType.APPLICATION_JSON).content("[1,null]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.repository.specification.EmployeeSpecifications;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long teamId;
+
+    @BeforeEach
+    void createTeam() {
+        teamId = teamRepository.save(TeamEntity.builder().name("Imported team").build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void jsonImportSkipsInvalidElementsAndInsertsInBatches() throws Exception {
+        int validCount = 600;
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < validCount; i++) {
+            json.append("{\"name\":\"Employee ").append(i).append("\",\"teamId\":").append(i % 2 == 0 ? teamId : null).append("},");
+        }
+        json.append("{\"name\":\"No team\",\"teamId\":").append(teamId + 1000).append("},{\"name\":\"\"},{\"name\":\"x\",\"teamId\":\"abc\"}]");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(post("/api/employees/import").contentType(MediaType.APPLICATION_JSON).content(json.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(validCount))
+                .andExpect(jsonPath("$.errors.length()").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(validCount + 2))
+                .andExpect(jsonPath("$.errors[1].row").value(validCount + 3))
+                .andExpect(jsonPath("$.errors[2].row").value(validCount + 1));
+
+        assertEquals(validCount, statistics.getEntityStatistics(EmployeeEntity.class.getName()).getInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < validCount / 10, "inserts are not batched");
+        assertEquals(validCount, employeeRepository.count());
+        // imported rows keep their initial version, only the teams they joined are bumped
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from employee where version <> 0", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select version from team where team_id = ?", Long.class, teamId));
+    }
+
+    @Test
+    void emptyJsonArrayImportsNothing() throws Exception {
+        mockMvc.perform(post("/api/employees/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(0));
+    }
+
+    @Test
+    void jsonImportRejectsNonArrayBody() throws Exception {
+        mockMvc.perform(post("/api/employees/import").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"x\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void csvImportReportsInvalidLines() throws Exception {
+        String csv = "teamId,name\n"
+                + teamId + ",\"Doe, John\"\n"
+                + ",Jane\n"
+                + "abc,Wrong team id\n"
+                + teamId + ",\"Unclosed\n"
+                + (teamId + 1000) + ",Missing team\n";
+
+        mockMvc.perform(post("/api/employees/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(4))
+                .andExpect(jsonPath("$.errors[1].row").value(5))
+                .andExpect(jsonPath("$.errors[2].row").value(6));
+
+        assertEquals(1, employeeRepository.count(EmployeeSpecifications.nameContains("Doe, John")));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "employee.export.fetch-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TeamEntity team;
+    private List<Long> employeeIds;
+
+    @BeforeEach
+    void createEmployees() {
+        team = teamRepository.save(TeamEntity.builder().name("Exported, \"quoted\" team").build());
+        employeeIds = new ArrayList<>();
+        for (String name : Arrays.asList("First", "Second, with comma", "Third")) {
+            EmployeeEntity employee = new EmployeeEntity();
+            employee.setName(name);
+            employee.setTeam(name.equals("Third") ? null : team);
+            employeeIds.add(employeeRepository.save(employee).getId());
+        }
+        team.setTeamLead(employeeRepository.getReferenceById(employeeIds.get(0)));
+        team = teamRepository.save(team);
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void employeesAreExportedAsCompressedCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/employees").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        assertEquals(Arrays.asList(
+                "id,name,teamId",
+                employeeIds.get(0) + ",First," + team.getId(),
+                employeeIds.get(1) + ",\"Second, with comma\"," + team.getId(),
+                employeeIds.get(2) + ",Third,"
+        ), lines(result));
+    }
+
+    @Test
+    void exportResumesAfterTheGivenId() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/employees").param("afterId", String.valueOf(employeeIds.get(0))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<String> lines = lines(result);
+        assertEquals(2, lines.size());
+        JsonNode second = objectMapper.readTree(lines.get(0));
+        assertEquals(employeeIds.get(1).longValue(), second.get("id").asLong());
+        assertEquals("Second, with comma", second.get("name").asText());
+        assertEquals(team.getId().longValue(), second.get("teamId").asLong());
+        assertEquals(employeeIds.get(2).longValue(), objectMapper.readTree(lines.get(1)).get("id").asLong());
+        assertTrue(objectMapper.readTree(lines.get(1)).get("teamId").isNull());
+    }
+
+    @Test
+    void teamsAreExportedWithinTheRange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/export/teams").param("format", "CSV").param("toId", String.valueOf(team.getId())))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(Arrays.asList(
+                "id,name,teamLeadId",
+                team.getId() + ",\"Exported, \"\"quoted\"\" team\"," + employeeIds.get(0)
+        ), lines(result));
+    }
+
+    @Test
+    void invalidParametersAreRejectedUncompressed() throws Exception {
+        mockMvc.perform(get("/api/export/employees").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/api/export/teams").param("afterId", "10").param("toId", "5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private List<String> lines(MvcResult result) throws IOException {
+        byte[] body = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())));
+        String content = new String(body, StandardCharsets.UTF_8);
+        assertFalse(content.isEmpty());
+        assertEquals('\n', content.charAt(content.length() - 1));
+        return Arrays.asList(content.substring(0, content.length() - 1).split("\n"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.configuration.CacheConfig;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrgCacheTests {
+
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Cache employees;
+    private Long firstTeamId;
+    private Long secondTeamId;
+    private Long employeeId;
+
+    @BeforeEach
+    void createTeams() {
+        employees = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        employeeId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Cached employee").build()).getId();
+        firstTeamId = teamService.createTeam(TeamCreateDto.builder().name("First cached team")
+                .teamLeadId(employeeId).employeeIds(Collections.singletonList(employeeId)).build()).getId();
+        secondTeamId = teamService.createTeam(TeamCreateDto.builder().name("Second cached team").build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+        employees.clear();
+    }
+
+    @Test
+    void cachedEmployeeIsReadWithVersionQueryOnly() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        employeeService.getEmployeeById(employeeId);
+        statistics.clear();
+
+        assertEquals("Cached employee", employeeService.getEmployeeById(employeeId).getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", CacheConfig.EMPLOYEES).tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void switchingTeamsEvictsEmployee() {
+        employeeService.getEmployeeById(employeeId);
+
+        employeeService.updateEmployee(employeeId, EmployeeCreateDto.builder().teamId(secondTeamId).build(), null);
+
+        assertNull(employees.get(employeeId));
+        assertEquals(secondTeamId, employeeService.getEmployeeById(employeeId).getTeam().getId());
+    }
+
+    @Test
+    void dtoPutBackByReadOverlappingCommitIsNotServed() {
+        employeeService.getEmployeeById(employeeId);
+        // a read that loaded the employee before the update committed puts its dto back after the eviction
+        Object overlappingRead = employees.get(employeeId).get();
+
+        employeeService.updateEmployee(employeeId, EmployeeCreateDto.builder().name("Renamed employee").build(), null);
+        employees.put(employeeId, overlappingRead);
+
+        assertEquals("Renamed employee", employeeService.getEmployeesByIds(Collections.singletonList(employeeId)).get(0).getResult().getName());
+        assertEquals("Renamed employee", employeeService.getEmployeeById(employeeId).getName());
+    }
+
+    @Test
+    void changingAnotherEmployeeKeepsCachedEmployee() {
+        Long otherId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Other employee").build()).getId();
+        employeeService.getEmployeeById(employeeId);
+
+        employeeService.updateEmployee(otherId, EmployeeCreateDto.builder().name("Renamed other").teamId(secondTeamId).build(), null);
+
+        assertNotNull(employees.get(employeeId));
+    }
+
+    @Test
+    void deletingTeamEvictsItsEmployees() {
+        employeeService.getEmployeeById(employeeId);
+
+        teamService.deleteTeam(firstTeamId);
+
+        assertNull(employees.get(employeeId));
+        assertNull(employeeService.getEmployeeById(employeeId).getTeam());
+    }
+}
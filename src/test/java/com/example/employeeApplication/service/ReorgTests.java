@@ -0,0 +1,157 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.*;
+import com.example.employeeApplication.exception.ApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a reorg is applied atomically, returns the changes made, and runs a number of statements that doesn't
+ * depend on the number of moved employees.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReorgTests {
+
+    private static final int EMPLOYEES = 60;
+
+    @Autowired
+    private ReorgService reorgService;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> employeeIds;
+    private Long firstTeamId;
+    private Long secondTeamId;
+
+    @BeforeEach
+    void createTeams() {
+        employeeIds = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employeeIds.add(employeeService.createEmployee(EmployeeCreateDto.builder().name("Reorged " + i).build()).getId());
+        }
+        firstTeamId = teamService.createTeam(TeamCreateDto.builder().name("First").teamLeadId(employeeIds.get(0)).employeeIds(employeeIds).build()).getId();
+        secondTeamId = teamService.createTeam(TeamCreateDto.builder().name("Second").build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void reorgIsAppliedAndReturnsChangesMade() throws IOException {
+        ReorgDto changes = reorgService.reorg(ReorgDto.builder()
+                .moves(Arrays.asList(
+                        move(employeeIds.get(1), secondTeamId),
+                        move(employeeIds.get(2), null),
+                        move(employeeIds.get(3), firstTeamId)))
+                // the teams swap their names
+                .renames(Arrays.asList(rename(firstTeamId, "second"), rename(secondTeamId, "First")))
+                .leadChanges(Arrays.asList(leadChange(firstTeamId, null), leadChange(secondTeamId, employeeIds.get(1))))
+                .build());
+
+        // the employee already in the first team is not reported as moved
+        assertEquals(2, changes.getMoves().size());
+        assertEquals(firstTeamId, changes.getMoves().get(0).getFromTeamId());
+        assertEquals(secondTeamId, changes.getMoves().get(0).getTeamId());
+        assertNull(changes.getMoves().get(1).getTeamId());
+        assertEquals("First", changes.getRenames().get(0).getPreviousName());
+        assertEquals(employeeIds.get(0), changes.getLeadChanges().get(0).getPreviousTeamLeadId());
+        assertNull(changes.getLeadChanges().get(1).getPreviousTeamLeadId());
+
+        TeamDto first = readTeam(firstTeamId);
+        TeamDto second = readTeam(secondTeamId);
+        assertEquals("second", first.getName());
+        assertNull(first.getTeamLead());
+        assertEquals(EMPLOYEES - 2, first.getEmployees().size());
+        assertEquals("First", second.getName());
+        assertEquals(employeeIds.get(1), second.getTeamLead().getId());
+        assertEquals(1, second.getEmployees().size());
+    }
+
+    @Test
+    void reorgRunsConstantStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<EmployeeMoveDto> moves = new ArrayList<>();
+        for (int i = 1; i < EMPLOYEES; i++) {
+            moves.add(move(employeeIds.get(i), i % 2 == 0 ? secondTeamId : null));
+        }
+        statistics.clear();
+
+        reorgService.reorg(ReorgDto.builder()
+                .moves(moves)
+                .renames(Collections.singletonList(rename(secondTeamId, "Bigger")))
+                .leadChanges(Collections.singletonList(leadChange(secondTeamId, employeeIds.get(0))))
+                .build());
+
+        assertEquals(EMPLOYEES / 2 - 1, jdbcTemplate.queryForObject("select count(*) from employee where team_id = ?", Integer.class, secondTeamId));
+        // employees, teams and names checks, members of changed teams, team update, two bulk moves,
+        // roster rebuild (3), outbox (3), roster, employee and team version bumps
+        assertTrue(statistics.getPrepareStatementCount() <= 16, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void invalidReorgChangesNothing() throws IOException {
+        ApiException missing = assertThrows(ApiException.class, () -> reorgService.reorg(ReorgDto.builder()
+                .moves(Arrays.asList(move(employeeIds.get(1), secondTeamId), move(-1L, secondTeamId)))
+                .build()));
+        assertEquals(HttpStatus.NOT_FOUND, missing.getHttpStatus());
+
+        ApiException taken = assertThrows(ApiException.class, () -> reorgService.reorg(ReorgDto.builder()
+                .moves(Collections.singletonList(move(employeeIds.get(1), secondTeamId)))
+                .renames(Collections.singletonList(rename(secondTeamId, "FIRST")))
+                .build()));
+        assertEquals(HttpStatus.CONFLICT, taken.getHttpStatus());
+
+        ApiException twice = assertThrows(ApiException.class, () -> reorgService.reorg(ReorgDto.builder()
+                .moves(Arrays.asList(move(employeeIds.get(1), secondTeamId), move(employeeIds.get(1), null)))
+                .build()));
+        assertEquals(HttpStatus.BAD_REQUEST, twice.getHttpStatus());
+
+        assertEquals(0, readTeam(secondTeamId).getEmployees().size());
+    }
+
+    private static EmployeeMoveDto move(Long employeeId, Long teamId) {
+        return EmployeeMoveDto.builder().employeeId(employeeId).teamId(teamId).build();
+    }
+
+    private static TeamRenameDto rename(Long teamId, String name) {
+        return TeamRenameDto.builder().teamId(teamId).name(name).build();
+    }
+
+    private static TeamLeadChangeDto leadChange(Long teamId, Long teamLeadId) {
+        return TeamLeadChangeDto.builder().teamId(teamId).teamLeadId(teamLeadId).build();
+    }
+
+    private TeamDto readTeam(Long teamId) throws IOException {
+        return objectMapper.readValue(teamService.getTeamJsonById(teamId), TeamDto.class);
+    }
+}
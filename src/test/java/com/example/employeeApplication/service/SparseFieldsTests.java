@@ -0,0 +1,108 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long teamId;
+    private Long leadId;
+
+    @BeforeEach
+    void createTeam() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        leadId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Sparse lead").build()).getId();
+        employeeService.createEmployee(EmployeeCreateDto.builder().name("Sparse loner").build());
+        teamId = teamService.createTeam(TeamCreateDto.builder().name("Sparse team").teamLeadId(leadId)
+                .employeeIds(Collections.singletonList(leadId)).build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void employeeSearchReturnsOnlyRequestedFields() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/employees/search").param("fields", "name").param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Sparse loner"))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].team").doesNotExist());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void employeeSearchJoinsTeamOnlyWhenExpanded() throws Exception {
+        mockMvc.perform(get("/api/employees/search").param("expand", "team"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(leadId))
+                .andExpect(jsonPath("$[0].name").value("Sparse lead"))
+                .andExpect(jsonPath("$[0].team.id").value(teamId))
+                .andExpect(jsonPath("$[0].team.name").value("Sparse team"))
+                .andExpect(jsonPath("$[1].team").value((Object) null));
+    }
+
+    @Test
+    void teamListReturnsOnlyRequestedFieldsAndRelations() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/teams/").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Sparse team"))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].employees").doesNotExist());
+        // version summary and the team names
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/teams/").param("fields", "name").param("expand", "teamLead,employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].teamLead.name").value("Sparse lead"))
+                .andExpect(jsonPath("$[0].employees.length()").value(1))
+                .andExpect(jsonPath("$[0].employees[0].id").value(leadId));
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/employees/search").param("fields", "salary")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/search").param("expand", "teamsLed")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/teams/").param("expand", "team")).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.configuration.StatisticsProperties;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.OrgStatisticsDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"employee.statistics.largest-teams=2", "employee.statistics.min-staleness=0s"})
+@ActiveProfiles("test")
+class StatisticsTests {
+
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private StatisticsProperties statisticsProperties;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long bigTeamId;
+    private Long smallTeamId;
+
+    @BeforeEach
+    void createOrg() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(employeeService.createEmployee(EmployeeCreateDto.builder().name("Counted " + i).build()).getId());
+        }
+        // 3 in the big team, 1 in the small team, 2 unassigned; one employee leads both teams
+        bigTeamId = teamService.createTeam(TeamCreateDto.builder().name("Big").teamLeadId(ids.get(0)).employeeIds(ids.subList(0, 3)).build()).getId();
+        smallTeamId = teamService.createTeam(TeamCreateDto.builder().name("Small").teamLeadId(ids.get(0)).employeeIds(Arrays.asList(ids.get(3))).build()).getId();
+        teamService.createTeam(TeamCreateDto.builder().name("Empty").build());
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void statisticsAreComputedWithAggregates() {
+        OrgStatisticsDto statistics = statisticsService.getStatistics(Duration.ZERO);
+
+        assertEquals(6, statistics.getEmployeeCount());
+        assertEquals(2, statistics.getUnassignedEmployeeCount());
+        assertEquals(3, statistics.getTeamCount());
+        assertEquals(4.0 / 3, statistics.getAverageTeamSize(), 1e-9);
+        assertEquals(2, statistics.getTeamsWithLeadCount());
+        assertEquals(1, statistics.getTeamsWithoutLeadCount());
+        assertEquals(1, statistics.getTeamLeadCount());
+        assertEquals(2, statistics.getLargestTeams().size());
+        assertEquals(bigTeamId, statistics.getLargestTeams().get(0).getId());
+        assertEquals(3, statistics.getLargestTeams().get(0).getSize());
+        assertEquals(smallTeamId, statistics.getLargestTeams().get(1).getId());
+    }
+
+    @Test
+    void statisticsAreKeptWithinTheStalenessBound() {
+        Statistics hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        OrgStatisticsDto computed = statisticsService.getStatistics(Duration.ZERO);
+        employeeService.createEmployee(EmployeeCreateDto.builder().name("Late").build());
+        hibernateStatistics.clear();
+
+        assertSame(computed, statisticsService.getStatistics(null));
+        assertSame(computed, statisticsService.getStatistics(Duration.ofHours(1)));
+        assertEquals(0, hibernateStatistics.getPrepareStatementCount());
+        assertEquals(7, statisticsService.getStatistics(Duration.ZERO).getEmployeeCount());
+    }
+
+    @Test
+    void requestCantGoBelowTheMinimumStaleness() {
+        OrgStatisticsDto computed = statisticsService.getStatistics(Duration.ZERO);
+        statisticsProperties.setMinStaleness(Duration.ofHours(1));
+        try {
+            employeeService.createEmployee(EmployeeCreateDto.builder().name("Late").build());
+
+            assertSame(computed, statisticsService.getStatistics(Duration.ZERO));
+        } finally {
+            statisticsProperties.setMinStaleness(Duration.ZERO);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.employeeApplication.service;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.exception.ApiException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that team membership changes are set-based: the number of statements doesn't depend on the number of employees moved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TeamMembershipTests {
+
+    private static final int EMPLOYEES = 60;
+
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private List<Long> employeeIds;
+
+    @BeforeEach
+    void createEmployees() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        employeeIds = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employeeIds.add(employeeService.createEmployee(EmployeeCreateDto.builder().name("Member " + i).build()).getId());
+        }
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void createTeamMovesEmployeesWithConstantStatements() {
+        statistics.clear();
+        TeamDto team = teamService.createTeam(TeamCreateDto.builder().name("Big team").teamLeadId(employeeIds.get(0)).employeeIds(employeeIds).build());
+
+        assertEquals(EMPLOYEES, team.getEmployees().size());
+        assertEquals(EMPLOYEES, countMembers(team.getId()));
+        // lead check, count check, name check, sequence, former teams, insert, bulk update, roster rebuild (3), outbox (3), roster, employee and team version bumps
+        assertTrue(statistics.getPrepareStatementCount() <= 16, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateTeamRemovesEmployeesNotInTheNewList() {
+        Long teamId = teamService.createTeam(TeamCreateDto.builder().name("Team").employeeIds(employeeIds).build()).getId();
+        List<Long> kept = employeeIds.subList(0, 2);
+
+        TeamDto updated = teamService.updateTeam(teamId, TeamCreateDto.builder().name("Renamed").teamLeadId(kept.get(0)).employeeIds(kept).build(), null).getValue();
+
+        assertEquals("Renamed", updated.getName());
+        assertEquals(kept.get(0), updated.getTeamLead().getId());
+        assertEquals(2, updated.getEmployees().size());
+        assertEquals(2, countMembers(teamId));
+        assertNull(employeeService.getEmployeeById(employeeIds.get(2)).getTeam());
+    }
+
+    @Test
+    void moveBetweenTeamsAndDeleteTeam() {
+        Long firstTeamId = teamService.createTeam(TeamCreateDto.builder().name("First").employeeIds(employeeIds).build()).getId();
+        Long secondTeamId = teamService.createTeam(TeamCreateDto.builder().name("Second").employeeIds(employeeIds.subList(0, 10)).build()).getId();
+        assertEquals(EMPLOYEES - 10, countMembers(firstTeamId));
+
+        TeamDto deleted = teamService.deleteTeam(firstTeamId);
+
+        assertEquals(EMPLOYEES - 10, deleted.getEmployees().size());
+        assertEquals(10, countMembers(secondTeamId));
+        assertEquals(Integer.valueOf(EMPLOYEES - 10), jdbcTemplate.queryForObject("select count(*) from employee where team_id is null", Integer.class));
+    }
+
+    @Test
+    void missingEmployeesAreRejectedWithoutChanges() {
+        List<Long> ids = new ArrayList<>(employeeIds.subList(0, 3));
+        ids.add(-1L);
+        assertThrows(ApiException.class, () -> teamService.createTeam(TeamCreateDto.builder().name("Broken").employeeIds(ids).build()));
+        // duplicate ids are not treated as missing employees
+        TeamDto team = teamService.createTeam(TeamCreateDto.builder().name("Duplicates").employeeIds(Arrays.asList(employeeIds.get(0), employeeIds.get(0))).build());
+        assertEquals(1, team.getEmployees().size());
+    }
+
+    @Test
+    void deleteEmployeeClearsTeamsLed() throws IOException {
+        Long leadId = employeeIds.get(0);
+        Long firstTeamId = teamService.createTeam(TeamCreateDto.builder().name("First").teamLeadId(leadId).build()).getId();
+        Long secondTeamId = teamService.createTeam(TeamCreateDto.builder().name("Second").teamLeadId(leadId).employeeIds(Arrays.asList(leadId)).build()).getId();
+
+        assertEquals(leadId, employeeService.deleteEmployee(leadId).getId());
+
+        assertNull(readTeam(firstTeamId).getTeamLead());
+        assertNull(readTeam(secondTeamId).getTeamLead());
+        assertEquals(0, readTeam(secondTeamId).getEmployees().size());
+    }
+
+    private int countMembers(Long teamId) {
+        return jdbcTemplate.queryForObject("select count(*) from employee where team_id = ?", Integer.class, teamId);
+    }
+
+    private TeamDto readTeam(Long teamId) throws IOException {
+        return objectMapper.readValue(teamService.getTeamJsonById(teamId), TeamDto.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.employeeApplication.utils;
+
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Copy of the former ModelMapper based mapping, kept as the baseline for the mapping benchmarks and as the expected
+ * output of ModelMapperUtils in its tests.
+ */
+public final class LegacyModelMapperMapping {
+
+    private static final ModelMapper modelMapper;
+
+    static {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+    }
+
+    private LegacyModelMapperMapping() {
+    }
+
+    public static List<EmployeeDto> mapEmployeeEntityList(List<EmployeeEntity> entities) {
+        return entities.stream().map(LegacyModelMapperMapping::mapEmployeeEntity).collect(Collectors.toList());
+    }
+
+    public static EmployeeDto mapEmployeeEntity(EmployeeEntity employeeEntity) {
+        EmployeeDto employeeDto = EmployeeDto.builder()
+                .id(employeeEntity.getId())
+                .name(employeeEntity.getName())
+                .build();
+        if (employeeEntity.getTeam() != null) {
+            employeeDto.setTeam(modelMapper.map(employeeEntity.getTeam(), TeamDto.class));
+        }
+        return employeeDto;
+    }
+
+    public static TeamDto mapTeamEntity(TeamEntity teamEntity) {
+        TeamDto teamDto = TeamDto.builder()
+                .name(teamEntity.getName())
+                .id(teamEntity.getId())
+                .build();
+
+        if (teamEntity.getEmployeesInTeam() != null) {
+            teamDto.setEmployees(mapEmployeeEntityList(new LinkedList<>(teamEntity.getEmployeesInTeam())));
+        }
+        if (teamEntity.getTeamLead() != null) {
+            teamDto.setTeamLead(modelMapper.map(teamEntity.getTeamLead(), EmployeeDto.class));
+        }
+        return teamDto;
+    }
+
+    public static List<TeamDto> mapTeamEntityList(List<TeamEntity> entities) {
+        return entities.stream().map(LegacyModelMapperMapping::mapTeamEntity).collect(Collectors.toList());
+    }
+}
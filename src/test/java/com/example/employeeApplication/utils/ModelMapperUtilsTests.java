@@ -0,0 +1,118 @@
+package com.example.employeeApplication.utils;
+
+import com.example.employeeApplication.dto.EmployeeDto;
+import com.example.employeeApplication.dto.TeamDto;
+import com.example.employeeApplication.entity.EmployeeEntity;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that ModelMapperUtils maps like the former ModelMapper based mapping. The team of an employee dto is a back
+ * reference, which is not serialized; ModelMapperUtils maps it without its lead and employees, and not at all for a
+ * team lead, so only its id and name are compared.
+ */
+class ModelMapperUtilsTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Team 10 led by employee 1, who is also one of its members; team 20 has no lead. Employee 4 is in no team.
+     */
+    private final EmployeeEntity lead = employee(1L, "Lead");
+    private final EmployeeEntity member = employee(2L, "Member");
+    private final EmployeeEntity leaderlessMember = employee(3L, "Member without lead");
+    private final EmployeeEntity withoutTeam = employee(4L, "Without team");
+    private final TeamEntity ledTeam = team(10L, "Led team", lead, lead, member);
+    private final TeamEntity leaderlessTeam = team(20L, "Team without lead", null, leaderlessMember);
+
+    @Test
+    void employeesAreMappedLikeBefore() throws Exception {
+        for (EmployeeEntity employee : Arrays.asList(lead, member, leaderlessMember, withoutTeam)) {
+            assertSameEmployee(LegacyModelMapperMapping.mapEmployeeEntity(employee), ModelMapperUtils.mapEmployeeEntity(employee));
+        }
+
+        List<EmployeeEntity> employees = Arrays.asList(lead, member, leaderlessMember, withoutTeam);
+        List<EmployeeDto> expected = LegacyModelMapperMapping.mapEmployeeEntityList(employees);
+        List<EmployeeDto> actual = ModelMapperUtils.mapEmployeeEntityList(employees);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameEmployee(expected.get(i), actual.get(i));
+        }
+        assertEquals(json(expected), json(actual));
+    }
+
+    @Test
+    void teamsAreMappedLikeBefore() throws Exception {
+        assertSameTeam(LegacyModelMapperMapping.mapTeamEntity(ledTeam), ModelMapperUtils.mapTeamEntity(ledTeam));
+        assertSameTeam(LegacyModelMapperMapping.mapTeamEntity(leaderlessTeam), ModelMapperUtils.mapTeamEntity(leaderlessTeam));
+
+        List<TeamEntity> teams = Arrays.asList(ledTeam, leaderlessTeam);
+        List<TeamDto> expected = LegacyModelMapperMapping.mapTeamEntityList(teams);
+        List<TeamDto> actual = ModelMapperUtils.mapTeamEntityList(teams);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTeam(expected.get(i), actual.get(i));
+        }
+        assertEquals(json(expected), json(actual));
+    }
+
+    private void assertSameEmployee(EmployeeDto expected, EmployeeDto actual) throws JsonProcessingException {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        if (expected.getTeam() == null) {
+            assertNull(actual.getTeam());
+        } else {
+            assertEquals(expected.getTeam().getId(), actual.getTeam().getId());
+            assertEquals(expected.getTeam().getName(), actual.getTeam().getName());
+        }
+        assertEquals(json(expected), json(actual));
+    }
+
+    private void assertSameTeam(TeamDto expected, TeamDto actual) throws JsonProcessingException {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        if (expected.getTeamLead() == null) {
+            assertNull(actual.getTeamLead());
+        } else {
+            assertEquals(expected.getTeamLead().getId(), actual.getTeamLead().getId());
+            assertEquals(expected.getTeamLead().getName(), actual.getTeamLead().getName());
+        }
+        assertEquals(expected.getEmployees().size(), actual.getEmployees().size());
+        for (int i = 0; i < expected.getEmployees().size(); i++) {
+            assertSameEmployee(expected.getEmployees().get(i), actual.getEmployees().get(i));
+        }
+        assertEquals(json(expected), json(actual));
+    }
+
+    private String json(Object value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static EmployeeEntity employee(Long id, String name) {
+        EmployeeEntity employee = new EmployeeEntity();
+        employee.setId(id);
+        employee.setName(name);
+        return employee;
+    }
+
+    private static TeamEntity team(Long id, String name, EmployeeEntity teamLead, EmployeeEntity... members) {
+        TeamEntity team = TeamEntity.builder()
+                .id(id)
+                .name(name)
+                .teamLead(teamLead)
+                .employeesInTeam(new LinkedHashSet<>(Arrays.asList(members)))
+                .build();
+        for (EmployeeEntity member : members) {
+            member.setTeam(team);
+        }
+        return team;
+    }
+}
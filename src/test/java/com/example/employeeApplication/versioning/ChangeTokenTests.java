@@ -0,0 +1,19 @@
+package com.example.employeeApplication.versioning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ChangeTokenTests {
+
+    @Test
+    void ifMatchIsParsedIntoVersion() {
+        assertNull(ChangeToken.parseIfMatch(null));
+        assertNull(ChangeToken.parseIfMatch("*"));
+        assertEquals(Long.valueOf(7), ChangeToken.parseIfMatch("W/\"7\""));
+        assertEquals(Long.valueOf(7), ChangeToken.parseIfMatch(" \"7\" "));
+        assertEquals(Long.valueOf(-1), ChangeToken.parseIfMatch("\"3-12-1700000000000\""));
+        assertEquals(Long.valueOf(-1), ChangeToken.parseIfMatch("7"));
+    }
+}
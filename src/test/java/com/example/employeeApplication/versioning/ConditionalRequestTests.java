@@ -0,0 +1,223 @@
+package com.example.employeeApplication.versioning;
+
+import com.example.employeeApplication.TestDatabase;
+import com.example.employeeApplication.dto.EmployeeCreateDto;
+import com.example.employeeApplication.dto.TeamCreateDto;
+import com.example.employeeApplication.entity.TeamEntity;
+import com.example.employeeApplication.exception.ApiException;
+import com.example.employeeApplication.repository.EmployeeRepository;
+import com.example.employeeApplication.repository.TeamRepository;
+import com.example.employeeApplication.service.EmployeeService;
+import com.example.employeeApplication.service.TeamService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TeamService teamService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long teamId;
+    private Long employeeId;
+
+    @BeforeEach
+    void createTeam() {
+        employeeId = employeeService.createEmployee(EmployeeCreateDto.builder().name("Versioned employee").build()).getId();
+        teamId = teamService.createTeam(TeamCreateDto.builder().name("Versioned team")
+                .employeeIds(Collections.singletonList(employeeId)).build()).getId();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        TestDatabase.deleteAll(jdbcTemplate);
+    }
+
+    @Test
+    void unchangedTeamIsAnsweredWithNotModifiedFromVersionOnly() throws Exception {
+        String etag = etagOf("/api/teams/{id}", teamId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/teams/{id}", teamId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        String lastModified = mockMvc.perform(get("/api/teams/{id}", teamId))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        mockMvc.perform(get("/api/teams/{id}", teamId).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void teamEtagChangesWithItsMembers() throws Exception {
+        String etag = etagOf("/api/teams/{id}", teamId);
+        employeeService.updateEmployee(employeeId, EmployeeCreateDto.builder().name("Renamed").teamId(teamId).build(), null);
+        String renamedEtag = etagOf("/api/teams/{id}", teamId);
+        assertNotEquals(etag, renamedEtag);
+
+        employeeService.deleteEmployee(employeeId);
+        mockMvc.perform(get("/api/teams/{id}", teamId).header(HttpHeaders.IF_NONE_MATCH, renamedEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void employeeEtagChangesWhenItsTeamIsRenamed() throws Exception {
+        String etag = etagOf("/api/employees/{id}", employeeId);
+        teamService.updateTeam(teamId, TeamCreateDto.builder().name("Renamed team").employeeIds(Collections.singletonList(employeeId)).build(), null);
+        mockMvc.perform(get("/api/employees/{id}", employeeId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void employeeBodyIsReadWithItsEtag() throws Exception {
+        employeeService.getEmployeeById(employeeId);
+        // a change the employees cache doesn't know about, like a stale dto put back after the eviction
+        jdbcTemplate.update("update employee set name = 'Changed', version = version + 1 where employee_id = ?", employeeId);
+
+        mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + jdbcTemplate.queryForObject("select version from employee where employee_id = ?", Long.class, employeeId) + "\""))
+                .andExpect(content().string(containsString("\"Changed\"")));
+    }
+
+    @Test
+    void teamListEtagChangesWhenATeamIsDeleted() throws Exception {
+        Long emptyTeamId = teamService.createTeam(TeamCreateDto.builder().name("Empty team").build()).getId();
+        String etag = etagOf("/api/teams/");
+        mockMvc.perform(get("/api/teams/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        teamService.deleteTeam(emptyTeamId);
+        mockMvc.perform(get("/api/teams/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateWithStaleIfMatchIsRejected() throws Exception {
+        String etag = etagOf("/api/employees/{id}", employeeId);
+        String body = "{\"name\":\"First update\"}";
+        mockMvc.perform(put("/api/employees/{id}/update", employeeId).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/employees/{id}/update", employeeId).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Lost update\"}"))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals("First update", employeeService.getEmployeeById(employeeId).getName());
+    }
+
+    @Test
+    void updateReturnsEtagOfNextVersion() throws Exception {
+        Long employeeVersion = ChangeToken.parseIfMatch(etagOf("/api/employees/{id}", employeeId));
+        String employeeEtag = mockMvc.perform(put("/api/employees/{id}/update", employeeId).header(HttpHeaders.IF_MATCH, "W/\"" + employeeVersion + "\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed\",\"teamId\":" + teamId + "}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + (employeeVersion + 1) + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(employeeEtag, etagOf("/api/employees/{id}", employeeId));
+
+        Long teamVersion = ChangeToken.parseIfMatch(etagOf("/api/teams/{id}", teamId));
+        String teamEtag = mockMvc.perform(put("/api/teams/{id}/update", teamId).header(HttpHeaders.IF_MATCH, "W/\"" + teamVersion + "\"")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Renamed team\",\"employeeIds\":[]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + (teamVersion + 1) + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(teamEtag, etagOf("/api/teams/{id}", teamId));
+    }
+
+    @Test
+    void concurrentTeamChangeFailsOptimisticLock() {
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            TeamEntity team = teamRepository.findById(teamId).orElseThrow(IllegalStateException::new);
+            commitConcurrently("update team set version = version + 1 where team_id = ?", teamId);
+            team.setName("Concurrent rename");
+            teamRepository.saveAndFlush(team);
+        }));
+    }
+
+    @Test
+    void deleteAfterConcurrentEmployeeChangeIsRejected() {
+        ApiException exception = assertThrows(ApiException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            employeeRepository.findById(employeeId).orElseThrow(IllegalStateException::new);
+            commitConcurrently("update employee set name = 'Concurrent rename', version = version + 1 where employee_id = ?", employeeId);
+            employeeService.deleteEmployee(employeeId);
+        }));
+        assertEquals(412, exception.getHttpStatus().value());
+        assertEquals("Concurrent rename", employeeService.getEmployeeById(employeeId).getName());
+    }
+
+    @Test
+    void deleteAfterConcurrentTeamChangeIsRejected() {
+        ApiException exception = assertThrows(ApiException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            teamRepository.findById(teamId).orElseThrow(IllegalStateException::new);
+            commitConcurrently("update team set name = 'Concurrent rename', version = version + 1 where team_id = ?", teamId);
+            teamService.deleteTeam(teamId);
+        }));
+        assertEquals(412, exception.getHttpStatus().value());
+        assertEquals(teamId, employeeService.getEmployeeById(employeeId).getTeam().getId());
+    }
+
+    /**
+     * Commits a change in another transaction, while the transaction of the caller is open.
+     */
+    private void commitConcurrently(String sql, Long id) {
+        Thread concurrentChange = new Thread(() -> jdbcTemplate.update(sql, id));
+        concurrentChange.start();
+        try {
+            concurrentChange.join();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String etagOf(String url, Object... uriVariables) throws Exception {
+        String etag = mockMvc.perform(get(url, uriVariables))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}